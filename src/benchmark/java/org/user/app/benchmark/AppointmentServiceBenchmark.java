@@ -0,0 +1,169 @@
+package org.user.app.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.user.app.PateientMangementSystemApplication;
+import org.user.app.dto.AvailableSlot;
+import org.user.app.dto.DoctorAvailability;
+import org.user.app.entity.Appointment;
+import org.user.app.entity.Doctor;
+import org.user.app.exceptions.NoAvailableAppointmentsException;
+import org.user.app.exceptions.SlotAlreadyBookedException;
+import org.user.app.repository.AppointmentRepository;
+import org.user.app.repository.DoctorRepository;
+import org.user.app.service.AppointmentServiceImpl;
+import org.user.app.service.SlotGenerator;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service-layer benchmarks for slot generation, availability lookups, booking and cancellation.
+ * Each fork starts the application without a web server on the {@code bench} profile, which seeds
+ * an in-memory database with {@code doctors * days * 20} slots (1.2 million with the defaults).
+ *
+ * <p>Run with {@code mvn -Pbenchmark verify}; pass JMH options through {@code -Djmh.args="..."},
+ * e.g. {@code -Djmh.args="AppointmentServiceBenchmark.book -p doctors=5000"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx4g" })
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class AppointmentServiceBenchmark {
+
+    @Param("2000")
+    private int doctors;
+
+    @Param("5000")
+    private int patients;
+
+    @Param("30")
+    private int days;
+
+    private ConfigurableApplicationContext context;
+
+    private AppointmentServiceImpl appointmentService;
+
+    private AppointmentRepository appointmentRepository;
+
+    private Doctor generatingDoctor;
+
+    // Days after the seeded range handed to slot generation, one per invocation
+    private final AtomicInteger generatedDays = new AtomicInteger();
+
+    // Walks the seeded slots in ID order so every booking claims a slot nobody holds yet
+    private final AtomicLong nextFreeSlot = new AtomicLong();
+
+    private long slotCount;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(PateientMangementSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("bench")
+                .run("--bench.doctors=" + doctors, "--bench.patients=" + patients, "--bench.days=" + days,
+                        // keep the generated days inside the availability index window
+                        "--slots.horizon.days=" + (days + 400));
+        appointmentService = context.getBean(AppointmentServiceImpl.class);
+        appointmentRepository = context.getBean(AppointmentRepository.class);
+        generatingDoctor = context.getBean(DoctorRepository.class).findById(1L).orElseThrow();
+        slotCount = (long) doctors * days * SlotGenerator.SLOTS_PER_DAY;
+
+        // Load every seeded day into the availability index so the lookups measure the steady state
+        for (int day = 0; day < days; day++) {
+            appointmentService.findAvailableDoctorsOnDate(BenchmarkDataSeeder.firstDay().plusDays(day));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Appointment> generateSlotsForOneDay() {
+        LocalDate date = BenchmarkDataSeeder.firstDay().plusDays(days + generatedDays.getAndIncrement() % 365);
+        return appointmentService.createHalfHourAppointmentsForDoctor(generatingDoctor, date, date);
+    }
+
+    @Benchmark
+    public List<DoctorAvailability> findAvailableDoctorsOnDate() {
+        return appointmentService.findAvailableDoctorsOnDate(randomDay());
+    }
+
+    /**
+     * The same lookup answered by the aggregate query, as it runs for dates outside the index window.
+     */
+    @Benchmark
+    public List<DoctorAvailability> findAvailableDoctorsOnDateFromDatabase() {
+        return appointmentRepository.findAvailableDoctorsOnDate(randomDay());
+    }
+
+    @Benchmark
+    public List<AvailableSlot> findAvailableAppointments() {
+        try {
+            return appointmentService.findAvailableAppointments(randomDoctor(), randomDay());
+        } catch (NoAvailableAppointmentsException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    @Benchmark
+    public Appointment book() {
+        long slotId = nextFreeSlot.getAndIncrement() % slotCount + 1;
+        try {
+            return appointmentService.bookAppointment(randomPatient(), slotId, "Benchmark");
+        } catch (SlotAlreadyBookedException e) {
+            // only once every seeded slot has been booked and the walk wraps around
+            return null;
+        }
+    }
+
+    /**
+     * Book a random slot and cancel it again, leaving the data set as it was.
+     */
+    @Benchmark
+    public Appointment bookAndCancel() {
+        long patientId = randomPatient();
+        long slotId = ThreadLocalRandom.current().nextLong(slotCount) + 1;
+        try {
+            appointmentService.bookAppointment(patientId, slotId, "Benchmark");
+        } catch (SlotAlreadyBookedException e) {
+            return null;
+        }
+        return appointmentService.cancelAppointment(slotId, patientId);
+    }
+
+    private LocalDate randomDay() {
+        return BenchmarkDataSeeder.firstDay().plusDays(ThreadLocalRandom.current().nextInt(days));
+    }
+
+    private long randomDoctor() {
+        return ThreadLocalRandom.current().nextLong(doctors) + 1;
+    }
+
+    private long randomPatient() {
+        return ThreadLocalRandom.current().nextLong(patients) + 1;
+    }
+}
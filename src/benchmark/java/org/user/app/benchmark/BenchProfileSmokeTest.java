@@ -0,0 +1,52 @@
+package org.user.app.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.user.app.dto.DoctorAvailability;
+import org.user.app.entity.Appointment;
+import org.user.app.entity.AppointmentStatus;
+import org.user.app.service.AppointmentServiceImpl;
+import org.user.app.service.SlotGenerator;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the {@code bench} profile with a tiny data set before the benchmarks or the load test run,
+ * so a schema change that breaks {@link BenchmarkDataSeeder} fails the build instead of producing an empty report.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = { "bench.doctors=3", "bench.patients=2", "bench.days=2" })
+@ActiveProfiles("bench")
+public class BenchProfileSmokeTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AppointmentServiceImpl appointmentService;
+
+    @Test
+    @DisplayName("The bench profile seeds its data set and serves the benchmarked operations")
+    public void testSeededDataSet() {
+        // Then: Every doctor's slot grid is seeded as free slots
+        assertEquals(3 * 2 * SlotGenerator.SLOTS_PER_DAY,
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM appointment", Integer.class));
+        List<DoctorAvailability> doctors = appointmentService.findAvailableDoctorsOnDate(BenchmarkDataSeeder.firstDay());
+        assertEquals(3, doctors.size());
+        assertEquals(SlotGenerator.SLOTS_PER_DAY, doctors.get(0).getFreeSlots());
+
+        // When: A seeded patient books and cancels a seeded slot
+        long slotId = BenchmarkDataSeeder.slotId(1, 0, 0, 2);
+        assertEquals(AppointmentStatus.BOOKED, appointmentService.bookAppointment(1L, slotId, "Smoke test").getStatus());
+        Appointment cancelled = appointmentService.cancelAppointment(slotId, 1L);
+
+        // Then: The slot is free again
+        assertEquals(AppointmentStatus.AVAILABLE, cancelled.getStatus());
+    }
+}
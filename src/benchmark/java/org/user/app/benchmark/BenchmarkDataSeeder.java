@@ -0,0 +1,150 @@
+package org.user.app.benchmark;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.user.app.entity.AppointmentStatus;
+import org.user.app.service.SlotGenerator;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the benchmark database with realistic volumes: {@code bench.doctors} doctors,
+ * {@code bench.patients} patients and the full half-hour slot grid of every doctor for
+ * {@code bench.days} days starting tomorrow.
+ * Rows are written with plain JDBC batches and sequential IDs, so a million slots take seconds
+ * rather than going through the persistence context; the ID sequences are moved past the seeded rows afterwards.
+ * Every seeded user has the password {@link #PASSWORD}.
+ */
+@Component
+@Profile("bench")
+@Order(0)
+public class BenchmarkDataSeeder implements CommandLineRunner {
+
+    public static final String PASSWORD = "Bench0@00";
+
+    private static final Logger log = LoggerFactory.getLogger(BenchmarkDataSeeder.class);
+
+    private static final String[] SPECIALIZATIONS = {
+            "Cardiology", "Dermatology", "General Medicine", "Neurology", "Orthopedics", "Pediatrics", "Psychiatry", "Radiology"
+    };
+
+    private static final int BATCH_SIZE = 5000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${bench.doctors:2000}")
+    private int doctors;
+
+    @Value("${bench.patients:5000}")
+    private int patients;
+
+    @Value("${bench.days:30}")
+    private int days;
+
+    public static String doctorEmail(long id) {
+        return "doctor" + id + "@bench.test";
+    }
+
+    public static String patientEmail(long id) {
+        return "patient" + id + "@bench.test";
+    }
+
+    /**
+     * The first seeded slot day.
+     */
+    public static LocalDate firstDay() {
+        return LocalDate.now().plusDays(1);
+    }
+
+    /**
+     * The ID of a seeded slot. Slots are numbered doctor by doctor, day by day, in start-time order.
+     *
+     * @param doctorId the doctor (1-based)
+     * @param dayIndex the day, counted from {@link #firstDay()} (0-based)
+     * @param slot the slot of the day (0-based)
+     * @param days the number of seeded days
+     */
+    public static long slotId(long doctorId, int dayIndex, int slot, int days) {
+        return ((doctorId - 1) * days + dayIndex) * SlotGenerator.SLOTS_PER_DAY + slot + 1;
+    }
+
+    @Override
+    public void run(String... args) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM doctor", Integer.class);
+        if (existing != null && existing > 0) {
+            log.warn("Benchmark data already present, not seeding");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        String password = passwordEncoder.encode(PASSWORD);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= doctors; id++) {
+            rows.add(new Object[] { id, "Doc" + id, "Bench", 30 + (int) (id % 35), id % 2 == 0 ? "Female" : "Male",
+                    doctorEmail(id), password, SPECIALIZATIONS[(int) (id % SPECIALIZATIONS.length)], "DOCTOR" });
+        }
+        insert("INSERT INTO doctor (id, first_name, last_name, age, gender, email, password, specialization, role) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+
+        for (long id = 1; id <= patients; id++) {
+            rows.add(new Object[] { id, "Pat" + id, "Bench", 18 + (int) (id % 70), id % 2 == 0 ? "Female" : "Male",
+                    patientEmail(id), password, "PATIENT" });
+        }
+        insert("INSERT INTO patient (id, first_name, last_name, age, gender, email, password, role) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+
+        String slotSql = "INSERT INTO appointment (id, doctor_id, appointment_date, start_time, end_time, status) "
+                + "VALUES (?, ?, ?, ?, ?, " + AppointmentStatus.AVAILABLE.getCode() + ")";
+        LocalDate firstDay = firstDay();
+        for (long doctorId = 1; doctorId <= doctors; doctorId++) {
+            for (int day = 0; day < days; day++) {
+                Date date = Date.valueOf(firstDay.plusDays(day));
+                LocalTime time = SlotGenerator.DAY_START;
+                for (int slot = 0; slot < SlotGenerator.SLOTS_PER_DAY; slot++) {
+                    LocalTime end = time.plusMinutes(SlotGenerator.SLOT_MINUTES);
+                    rows.add(new Object[] { slotId(doctorId, day, slot, days), doctorId, date, Time.valueOf(time), Time.valueOf(end) });
+                    time = end;
+                }
+                if (rows.size() >= BATCH_SIZE) {
+                    insert(slotSql, rows);
+                }
+            }
+        }
+        insert(slotSql, rows);
+
+        restartSequence("doc_sequence", doctors + 1L);
+        restartSequence("pat_sequence", patients + 1L);
+        restartSequence("app_sequence", (long) doctors * days * SlotGenerator.SLOTS_PER_DAY + 1);
+
+        log.warn("Seeded {} doctors, {} patients and {} slots in {} ms", doctors, patients,
+                (long) doctors * days * SlotGenerator.SLOTS_PER_DAY, System.currentTimeMillis() - start);
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+        rows.clear();
+    }
+
+    private void restartSequence(String name, long next) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + name + " RESTART WITH " + next);
+    }
+}
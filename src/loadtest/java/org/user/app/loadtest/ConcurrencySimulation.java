@@ -0,0 +1,121 @@
+package org.user.app.loadtest;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.*;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.user.app.PateientMangementSystemApplication;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Throughput under high concurrency: many patients browsing availability back to back, with no think time,
+ * to compare the virtual-thread profile with the default platform-thread pool.
+ * Run it twice and compare the requests per second and response times in the two reports:
+ * <pre>
+ * mvn -Ploadtest verify -Dgatling.simulationClass=org.user.app.loadtest.ConcurrencySimulation
+ * mvn -Ploadtest verify -Dgatling.simulationClass=org.user.app.loadtest.ConcurrencySimulation -DvirtualThreads=true
+ * </pre>
+ * With more concurrent users than Tomcat's 200 platform threads, the default mode queues requests for a
+ * thread; the virtual mode queues them for a database connection instead.
+ * The in-process application uses the in-memory bench database, where queries barely block, so the
+ * difference shows best against a MySQL-backed instance started with and without the {@code virtual} profile
+ * and passed as {@code baseUrl}. Measured results are kept in {@code src/loadtest/README.md}.
+ *
+ * <p>Settings are system properties: {@code baseUrl} (application started in-process), {@code virtualThreads}
+ * (false, in-process only), {@code concurrency} (500), {@code rampSeconds} (30), {@code durationSeconds} (120),
+ * {@code patients} (5000) and {@code days} (30): the volumes the target was seeded with,
+ * {@code maxErrorPercent} (1) and {@code minRequestsPerSec} (0).
+ */
+public class ConcurrencySimulation extends Simulation {
+
+    private static final String PASSWORD = "Bench0@00";
+
+    private final ConfigurableApplicationContext application;
+    private final String baseUrl;
+    private final int concurrency = Integer.getInteger("concurrency", 500);
+    private final Duration ramp = Duration.ofSeconds(Long.getLong("rampSeconds", 30));
+    private final Duration duration = Duration.ofSeconds(Long.getLong("durationSeconds", 120));
+    private final int patients = Integer.getInteger("patients", 5000);
+    private final int days = Integer.getInteger("days", 30);
+
+    {
+        String target = System.getProperty("baseUrl");
+        if (target == null) {
+            // devtools is on the test classpath; its restart class loader only gets in the way here
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            String[] profiles = Boolean.getBoolean("virtualThreads") ? new String[] {"bench", "virtual"} : new String[] {"bench"};
+            application = new SpringApplicationBuilder(PateientMangementSystemApplication.class)
+                    .profiles(profiles)
+                    .run("--server.port=0", "--bench.patients=" + patients, "--bench.days=" + days);
+            target = "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort();
+        } else {
+            application = null;
+        }
+        baseUrl = target;
+    }
+
+    private final HttpProtocolBuilder httpProtocol = http
+            .baseUrl(baseUrl)
+            .acceptHeader("text/html,application/xhtml+xml")
+            .disableCaching();
+
+    // Random seeded patient plus a random day of the seeded slot range (which starts tomorrow)
+    private Iterator<Map<String, Object>> patients() {
+        return Stream.generate(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long id = random.nextLong(patients) + 1;
+            return Map.<String, Object>of(
+                    "email", "patient" + id + "@bench.test",
+                    "date", LocalDate.now().plusDays(1 + random.nextInt(days)).toString());
+        }).iterator();
+    }
+
+    // Each user logs in once, then keeps browsing until the end of the run
+    private final ScenarioBuilder browsing = scenario("browsing patient")
+            .feed(patients())
+            .exec(http("login")
+                    .post("/login")
+                    .formParam("username", "#{email}")
+                    .formParam("password", PASSWORD)
+                    .check(status().is(200))
+                    .check(currentLocationRegex("/login\\?error").notExists()))
+            .during(duration).on(
+                    exec(http("available doctors")
+                            .get("/appointments/availableDoctors/results")
+                            .queryParam("date", "#{date}")
+                            .check(status().is(200))
+                            .check(regex("name=\"doctorId\" value=\"(\\d+)\"").findRandom().optional().saveAs("doctorId")))
+                    .doIf(session -> session.contains("doctorId")).then(
+                            exec(http("available slots")
+                                    .get("/appointments/availableAppointments")
+                                    .queryParam("doctorId", "#{doctorId}")
+                                    .queryParam("date", "#{date}")
+                                    .check(status().is(200)))));
+
+    {
+        setUp(browsing.injectOpen(rampUsers(concurrency).during(ramp)))
+                .protocols(httpProtocol)
+                .assertions(
+                        global().failedRequests().percent().lt(Double.parseDouble(System.getProperty("maxErrorPercent", "1"))),
+                        global().requestsPerSec().gte(Double.parseDouble(System.getProperty("minRequestsPerSec", "0"))));
+    }
+
+    @Override
+    public void after() {
+        if (application != null) {
+            application.close();
+        }
+    }
+}
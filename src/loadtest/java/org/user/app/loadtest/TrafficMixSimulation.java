@@ -0,0 +1,187 @@
+package org.user.app.loadtest;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.*;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.PopulationBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.user.app.PateientMangementSystemApplication;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Load test with the production traffic mix: patients searching, booking and cancelling,
+ * doctors checking their day and admins paging the user lists.
+ * Users arrive at a constant rate, split 70/20/10 between patients, doctors and admins.
+ * Each user logs in through the form login and keeps its session cookie.
+ *
+ * <p>Without a {@code baseUrl} the simulation starts the application itself, on a random port with the
+ * {@code bench} profile (in-memory database seeded by BenchmarkDataSeeder), and stops it when the run ends.
+ *
+ * <p>The run fails when a threshold is missed. Latency thresholds apply to every request name,
+ * so a regression on any one endpoint fails the run. Settings are system properties:
+ * <ul>
+ *   <li>{@code baseUrl} (application started in-process), {@code usersPerSec} (10), {@code rampSeconds} (30),
+ *       {@code durationSeconds} (120)</li>
+ *   <li>{@code doctors} (2000), {@code patients} (5000), {@code days} (30): the volumes the target was seeded with</li>
+ *   <li>{@code maxP50Ms} (100), {@code maxP99Ms} (1000), {@code maxErrorPercent} (1), {@code minRequestsPerSec} (0)</li>
+ * </ul>
+ * A separately started instance must have been seeded the same way, e.g. run with the {@code bench} profile.
+ */
+public class TrafficMixSimulation extends Simulation {
+
+    private static final String PASSWORD = "Bench0@00";
+
+    private final ConfigurableApplicationContext application;
+    private final String baseUrl;
+    private final double usersPerSec = Double.parseDouble(System.getProperty("usersPerSec", "10"));
+    private final Duration ramp = Duration.ofSeconds(Long.getLong("rampSeconds", 30));
+    private final Duration duration = Duration.ofSeconds(Long.getLong("durationSeconds", 120));
+    private final int doctors = Integer.getInteger("doctors", 2000);
+    private final int patients = Integer.getInteger("patients", 5000);
+    private final int days = Integer.getInteger("days", 30);
+
+    {
+        String target = System.getProperty("baseUrl");
+        if (target == null) {
+            // devtools is on the test classpath; its restart class loader only gets in the way here
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            application = new SpringApplicationBuilder(PateientMangementSystemApplication.class)
+                    .profiles("bench")
+                    .run("--server.port=0", "--bench.doctors=" + doctors, "--bench.patients=" + patients, "--bench.days=" + days);
+            target = "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort();
+        } else {
+            application = null;
+        }
+        baseUrl = target;
+    }
+
+    private final HttpProtocolBuilder httpProtocol = http
+            .baseUrl(baseUrl)
+            .acceptHeader("text/html,application/xhtml+xml")
+            .disableCaching();
+
+    // Random seeded user plus a random day of the seeded slot range (which starts tomorrow)
+    private Iterator<Map<String, Object>> users(String role, int count) {
+        return Stream.generate(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long id = random.nextLong(count) + 1;
+            return Map.<String, Object>of(
+                    "email", role + id + "@bench.test",
+                    "date", LocalDate.now().plusDays(1 + random.nextInt(days)).toString());
+        }).iterator();
+    }
+
+    private ChainBuilder login(String email, String password) {
+        return exec(http("login")
+                .post("/login")
+                .formParam("username", email)
+                .formParam("password", password)
+                .check(status().is(200))
+                .check(currentLocationRegex("/login\\?error").notExists()));
+    }
+
+    private final ScenarioBuilder patientsScenario = scenario("patient")
+            .feed(users("patient", patients))
+            .exec(login("#{email}", PASSWORD))
+            .pause(Duration.ofMillis(500), Duration.ofSeconds(2))
+            .exec(http("available doctors")
+                    .get("/appointments/availableDoctors/results")
+                    .queryParam("date", "#{date}")
+                    .check(status().is(200))
+                    .check(regex("name=\"doctorId\" value=\"(\\d+)\"").findRandom().optional().saveAs("doctorId")))
+            .doIf(session -> session.contains("doctorId")).then(
+                    pause(Duration.ofMillis(500), Duration.ofSeconds(2))
+                    .exec(http("available slots")
+                            .get("/appointments/availableAppointments")
+                            .queryParam("doctorId", "#{doctorId}")
+                            .queryParam("date", "#{date}")
+                            .check(status().is(200))
+                            .check(regex("/appointments/getform/(\\d+)").findRandom().optional().saveAs("appointmentId"))))
+            .doIf(session -> session.contains("appointmentId")).then(
+                    exec(http("booking form")
+                            .get("/appointments/getform/#{appointmentId}")
+                            .check(status().is(200)))
+                    .pause(Duration.ofSeconds(1), Duration.ofSeconds(3))
+                    // A slot taken in the meantime re-renders the form with an error; that is a valid outcome, not a failure
+                    .exec(http("book")
+                            .post("/appointments/book")
+                            .formParam("appointmentId", "#{appointmentId}")
+                            .formParam("symptoms", "Load test")
+                            .check(status().is(200)))
+                    // About a third of bookings are cancelled again
+                    .randomSwitch().on(
+                            percent(35.0).then(
+                                    pause(Duration.ofMillis(500), Duration.ofSeconds(2))
+                                    .exec(http("cancel")
+                                            .post("/appointments/cancel")
+                                            .formParam("appointmentId", "#{appointmentId}")
+                                            .check(status().is(200))))));
+
+    private final ScenarioBuilder doctorsScenario = scenario("doctor")
+            .feed(users("doctor", doctors))
+            .exec(login("#{email}", PASSWORD))
+            .pause(Duration.ofMillis(500), Duration.ofSeconds(2))
+            .exec(http("doctor appointments")
+                    .get("/doctors/appointments")
+                    .queryParam("date", "#{date}")
+                    .check(status().is(200)));
+
+    private final ScenarioBuilder adminsScenario = scenario("admin")
+            .exec(login("admin@demo.com", "Demo0@00"))
+            .pause(Duration.ofMillis(500), Duration.ofSeconds(2))
+            .exec(http("admin patient list")
+                    .get("/admin/patList")
+                    .check(status().is(200))
+                    .check(regex("after=([^\"&]+)\"").optional().saveAs("after")))
+            .doIf(session -> session.contains("after")).then(
+                    pause(Duration.ofMillis(500), Duration.ofSeconds(2))
+                    .exec(http("admin patient list next page")
+                            .get("/admin/patList")
+                            .queryParam("after", "#{after}")
+                            .check(status().is(200))))
+            .pause(Duration.ofMillis(500), Duration.ofSeconds(2))
+            .exec(http("admin doctor list")
+                    .get("/admin/docList")
+                    .queryParam("sort", "specialization")
+                    .check(status().is(200)));
+
+    private PopulationBuilder arrivals(ScenarioBuilder scenario, double share) {
+        double rate = usersPerSec * share;
+        return scenario.injectOpen(
+                rampUsersPerSec(0).to(rate).during(ramp),
+                constantUsersPerSec(rate).during(duration));
+    }
+
+    {
+        setUp(
+                arrivals(patientsScenario, 0.7),
+                arrivals(doctorsScenario, 0.2),
+                arrivals(adminsScenario, 0.1))
+                .protocols(httpProtocol)
+                .assertions(
+                        forAll().responseTime().percentile(50.0).lt(Integer.getInteger("maxP50Ms", 100)),
+                        forAll().responseTime().percentile(99.0).lt(Integer.getInteger("maxP99Ms", 1000)),
+                        global().failedRequests().percent().lt(Double.parseDouble(System.getProperty("maxErrorPercent", "1"))),
+                        global().requestsPerSec().gte(Double.parseDouble(System.getProperty("minRequestsPerSec", "0"))));
+    }
+
+    @Override
+    public void after() {
+        if (application != null) {
+            application.close();
+        }
+    }
+}
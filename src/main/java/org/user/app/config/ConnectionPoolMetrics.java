@@ -0,0 +1,48 @@
+package org.user.app.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Pool saturation gauge for every Hikari pool (the primary and, when configured, the read replica).
+ * <p>
+ * Spring Boot already publishes Hikari's own meters, tagged with the pool name: {@code hikaricp.connections.acquire}
+ * (time spent waiting for a connection), {@code .active}, {@code .idle}, {@code .pending} (threads waiting) and
+ * {@code .timeout} (requests that gave up). This adds {@code hikaricp.connections.utilization}, the share of the
+ * maximum pool size currently checked out. A pool at 1.0 with pending threads is saturated and the pool size,
+ * not the database, is limiting throughput.
+ */
+@Component
+public class ConnectionPoolMetrics implements MeterBinder {
+
+    private final ObjectProvider<HikariDataSource> dataSources;
+
+    public ConnectionPoolMetrics(ObjectProvider<HikariDataSource> dataSources) {
+        this.dataSources = dataSources;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        dataSources.orderedStream().forEach(dataSource ->
+                Gauge.builder("hikaricp.connections.utilization", dataSource, ConnectionPoolMetrics::utilization)
+                        .description("Share of the maximum pool size in use")
+                        .tag("pool", String.valueOf(dataSource.getPoolName()))
+                        .register(registry));
+    }
+
+    static double utilization(HikariDataSource dataSource) {
+        // The pool is only created on the first getConnection()
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return 0;
+        }
+        return (double) pool.getActiveConnections() / dataSource.getMaximumPoolSize();
+    }
+}
@@ -0,0 +1,68 @@
+package org.user.app.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.user.app.dto.Credential;
+import org.user.app.repository.CredentialRepository;
+
+/**
+ * Cached credential lookup behind {@link CustomUserDetailsService}.
+ * A hit costs no query, a miss costs one. Entries must be evicted whenever an account's
+ * email or password changes or the account is removed.
+ */
+@Component
+public class CredentialLookup {
+
+    public static final String CACHE_NAME = "credentials";
+
+    @Autowired
+    private CredentialRepository credentialRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * Find the credentials registered for an email. Unknown emails are not cached.
+     *
+     * @param email the login email
+     * @return the credentials, or null if no account uses this email
+     */
+    @Cacheable(cacheNames = CACHE_NAME, unless = "#result == null")
+    public Credential findByEmail(String email) {
+        return credentialRepository.findByEmail(email);
+    }
+
+    /**
+     * Drop the cached credentials of an email, once the current transaction commits
+     * so that a concurrent login cannot cache the old row again.
+     *
+     * @param email the login email
+     */
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(email);
+                }
+            });
+        } else {
+            evictNow(email);
+        }
+    }
+
+    private void evictNow(String email) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.evict(email);
+        }
+    }
+}
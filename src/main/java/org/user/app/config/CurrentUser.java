@@ -0,0 +1,58 @@
+package org.user.app.config;
+
+import java.io.Serializable;
+
+/**
+ * The logged-in patient, doctor or admin, resolved from the database once per session
+ * and passed to controller methods that declare a parameter of this type.
+ * Holds only the ID and the fields shown on every page; load the entity by ID when more is needed.
+ */
+public class CurrentUser implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;  // ID of the patient, doctor or admin entity
+
+    private final String email;  // Login email
+
+    private final String role;  // PATIENT, DOCTOR or ADMIN
+
+    private final String firstName;  // First name, null for admins
+
+    private final String lastName;  // Last name, null for admins
+
+    private final long version;  // Profile version the fields were read at, see CurrentUserArgumentResolver
+
+	public CurrentUser(Long id, String email, String role, String firstName, String lastName, long version) {
+		this.id = id;
+		this.email = email;
+		this.role = role;
+		this.firstName = firstName;
+		this.lastName = lastName;
+		this.version = version;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public String getRole() {
+		return role;
+	}
+
+	public String getFirstName() {
+		return firstName;
+	}
+
+	public String getLastName() {
+		return lastName;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+}
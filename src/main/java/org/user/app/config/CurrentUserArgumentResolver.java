@@ -0,0 +1,151 @@
+package org.user.app.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.user.app.entity.Admin;
+import org.user.app.entity.Doctor;
+import org.user.app.entity.Patient;
+import org.user.app.repository.AdminRepository;
+import org.user.app.repository.DoctorRepository;
+import org.user.app.repository.PatientRepository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Supplies the {@link CurrentUser} argument of controller methods.
+ * The user is looked up by the login email on the first request of a session and then
+ * kept in the session, so later requests need no query to know who is logged in.
+ * When an account is edited or deleted, {@link #evict} marks it so every session holding it
+ * loads it again on its next request.
+ */
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    static final String SESSION_ATTRIBUTE = CurrentUser.class.getName();
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private AdminRepository adminRepository;
+
+    // Bounds the version entries kept; far above the number of accounts edited within one session timeout
+    private static final long MAX_PROFILE_VERSIONS = 100_000;
+
+    // Latest profile version per "ROLE:id", set by evict; users loaded before it are stale
+    private Cache<String, Long> profileVersions = versionCache(Duration.ofMinutes(30));
+
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    /**
+     * Keep each version entry for one session timeout. A session still alive after that has made a request
+     * since the edit, and that request already reloaded the user, so the entry is no longer needed.
+     *
+     * @param sessionTimeout the idle timeout of HTTP sessions
+     */
+    @Value("${server.servlet.session.timeout:30m}")
+    void setSessionTimeout(Duration sessionTimeout) {
+        profileVersions = versionCache(sessionTimeout);
+    }
+
+    private static Cache<String, Long> versionCache(Duration expiry) {
+        return Caffeine.newBuilder().maximumSize(MAX_PROFILE_VERSIONS).expireAfterWrite(expiry).build();
+    }
+
+    /**
+     * Mark an account as changed so sessions holding it are resolved again on their next request.
+     * Call it after the change has committed.
+     *
+     * @param role PATIENT, DOCTOR or ADMIN
+     * @param id   ID of the patient, doctor or admin entity
+     */
+    public void evict(String role, Long id) {
+        profileVersions.put(role + ":" + id, versionSequence.incrementAndGet());
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return CurrentUser.class.equals(parameter.getParameterType());
+    }
+
+    /**
+     * @throws AuthenticationCredentialsNotFoundException if nobody is logged in
+     * @throws UsernameNotFoundException if the logged-in account no longer exists under its login email
+     */
+    @Override
+    public CurrentUser resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                       NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            throw new AuthenticationCredentialsNotFoundException("No logged-in user");
+        }
+
+        // The session survives login with its attributes migrated, so check it still belongs to this user
+        Object cached = webRequest.getAttribute(SESSION_ATTRIBUTE, RequestAttributes.SCOPE_SESSION);
+        if (cached instanceof CurrentUser user && user.getEmail().equals(authentication.getName()) && !isStale(user)) {
+            return user;
+        }
+
+        CurrentUser user = load(authentication);
+        webRequest.setAttribute(SESSION_ATTRIBUTE, user, RequestAttributes.SCOPE_SESSION);
+        return user;
+    }
+
+    private boolean isStale(CurrentUser user) {
+        Long version = profileVersions.getIfPresent(user.getRole() + ":" + user.getId());
+        return version != null && version > user.getVersion();
+    }
+
+    private CurrentUser load(Authentication authentication) {
+        // Read the version first, so an edit committed while loading still marks this copy stale
+        long version = versionSequence.get();
+        String email = authentication.getName();
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            switch (authority.getAuthority()) {
+                case "ROLE_PATIENT" -> {
+                    Patient patient = patientRepository.findByEmail(email);
+                    if (patient != null) {
+                        return new CurrentUser(patient.getId(), email, "PATIENT", patient.getFirstName(),
+                                patient.getLastName(), version);
+                    }
+                }
+                case "ROLE_DOCTOR" -> {
+                    Doctor doctor = doctorRepository.findByEmail(email);
+                    if (doctor != null) {
+                        return new CurrentUser(doctor.getId(), email, "DOCTOR", doctor.getFirstName(),
+                                doctor.getLastName(), version);
+                    }
+                }
+                case "ROLE_ADMIN" -> {
+                    Admin admin = adminRepository.findByEmail(email);
+                    if (admin != null) {
+                        return new CurrentUser(admin.getId(), email, "ADMIN", null, null, version);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        throw new UsernameNotFoundException("No account found for " + email);
+    }
+}
@@ -0,0 +1,44 @@
+package org.user.app.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.user.app.service.DrugCatalogService;
+
+/**
+ * Bulk-loads the medication catalog at startup from the file named by {@code medication.catalog.location},
+ * then builds the autocomplete index. Entries already in the catalog are kept, so restarting is harmless.
+ */
+@Component
+public class DrugCatalogLoader implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DrugCatalogLoader.class);
+
+    @Autowired
+    private DrugCatalogService drugCatalogService;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${medication.catalog.location:}")
+    private String location;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (!location.isBlank()) {
+            Resource resource = resourceLoader.getResource(location);
+            if (resource.exists()) {
+                int added = drugCatalogService.importCatalog(resource);
+                log.info("Medication catalog: {} entries added from {}", added, location);
+                return;
+            }
+            log.warn("Medication catalog file {} not found", location);
+        }
+        drugCatalogService.reload();
+    }
+}
@@ -0,0 +1,16 @@
+package org.user.app.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SqlLoggingConfig {
+
+    // Install the sampler as Hibernate's statement inspector so it sees every statement of every session
+    @Bean
+    HibernatePropertiesCustomizer sqlSamplerCustomizer(SqlSampler sqlSampler) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlSampler);
+    }
+}
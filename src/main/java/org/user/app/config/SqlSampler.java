@@ -0,0 +1,50 @@
+package org.user.app.config;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs a random share of the SQL statements Hibernate prepares, as a cheap alternative to
+ * show-sql in production. The share can be changed while the application runs; at 0 the
+ * only cost per statement is one volatile read.
+ */
+@Component
+public class SqlSampler implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger log = LoggerFactory.getLogger("org.user.app.SQL_SAMPLE");
+
+    private volatile double sampleRate;
+
+    public SqlSampler(@Value("${sql.log.sample-rate:0.0}") double sampleRate) {
+        setSampleRate(sampleRate);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        double rate = sampleRate;
+        if (rate > 0 && (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate)) {
+            log.info(sql);
+        }
+        return sql;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Change the share of statements that are logged.
+     *
+     * @param sampleRate between 0.0 (none) and 1.0 (all); values outside are clamped
+     */
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = Math.max(0.0, Math.min(1.0, sampleRate));
+    }
+}
@@ -1,12 +1,13 @@
 package org.user.app.controller;
 
-import java.util.List;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.user.app.config.CurrentUserArgumentResolver;
+import org.user.app.config.SqlSampler;
+import org.user.app.dto.ListPage;
 import org.user.app.entity.Doctor;
 import org.user.app.entity.Patient;
 import org.user.app.exceptions.DoctorNotFoundException;
@@ -27,31 +28,53 @@ public class AdminController {
     @Autowired
    	private DoctorServiceImpl doctorServiceImpl;
     
+    @Autowired
+    private SqlSampler sqlSampler;
+
+    @Autowired
+    private CurrentUserArgumentResolver currentUserArgumentResolver;
+    
     
 
     // Method to display admin home page
     @GetMapping("/home")
     @Operation(summary = "Admin homepage")
-    public String adminHome() {
+    public String adminHome(Model model) {
+        model.addAttribute("sqlSampleRate", sqlSampler.getSampleRate());
     	return "AdminHomepage";
     }
     
+    // Method to change the share of SQL statements written to the sample log at runtime
+    @PostMapping("/sqlSampling")
+    @Operation(summary = "Change the SQL sampling rate")
+    public String updateSqlSampling(@RequestParam double rate) {
+        sqlSampler.setSampleRate(rate);
+        return "redirect:/admin/home";
+    }
+    
     // Method to delete a patient by ID
     @GetMapping("/patDelete/{id}")
     @Operation(summary = "Delete a patient by ID")
     public String deletePatient(@PathVariable Long id, Model model) {
         patientServiceImpl.deletePatient(id);
+        currentUserArgumentResolver.evict("PATIENT", id);
         model.addAttribute("message", "Patient deleted successfully.");
         return "redirect:/patients/list"; // Redirect to patient list
     }
     
-    // Method to list all patients
+    // Method to list patients one page at a time
     @GetMapping("/patList")
-    @Operation(summary = "List all patients")
-    public String listPatients(Model model) {
-        List<Patient> patients = patientServiceImpl.getAllPatients();
-        model.addAttribute("patients", patients);
-        return "PatientsList"; // The view that lists all patients
+    @Operation(summary = "List patients page by page")
+    public String listPatients(@RequestParam(required = false) String sort,
+                               @RequestParam(required = false) String dir,
+                               @RequestParam(required = false) Integer size,
+                               @RequestParam(required = false) String after,
+                               @RequestParam(required = false) String before,
+                               Model model) {
+        ListPage<Patient> page = patientServiceImpl.getPatientsPage(sort, dir, size, after, before);
+        model.addAttribute("patients", page.getContent());
+        model.addAttribute("page", page);
+        return "PatientsList"; // The view that lists the patients
     }
 
     // Method to display the update form for a patient
@@ -69,6 +92,7 @@ public class AdminController {
     @Operation(summary = "Update patient details")
     public String updatePatient(@PathVariable Long id, @Valid @ModelAttribute("patient") Patient updatedPatient, BindingResult result, Model model) {
         patientServiceImpl.updatePatient(id, updatedPatient);
+        currentUserArgumentResolver.evict("PATIENT", id); // The patient's open sessions show the new details
         return "redirect:/admin/patList"; // Redirect to the list of patients
     }
     
@@ -87,6 +111,7 @@ public class AdminController {
     @Operation(summary = "Update doctor details")
     public String updateDoctor(@PathVariable Long id, @Valid @ModelAttribute("doctor") Doctor updatedDoctor, BindingResult result, Model model) {
         doctorServiceImpl.updateDoctor(id, updatedDoctor);
+        currentUserArgumentResolver.evict("DOCTOR", id); // The doctor's open sessions show the new details
         return "redirect:/admin/docList"; // Redirect to the list of doctors
     }
 
@@ -95,15 +120,22 @@ public class AdminController {
     @Operation(summary = "Delete a doctor by ID")
     public String deleteDoctor(@PathVariable Long id) {
         doctorServiceImpl.deleteDoctor(id);
+        currentUserArgumentResolver.evict("DOCTOR", id);
         return "redirect:/admin/docList"; // Redirect to doctor list
     }
 
-    // Method to list all doctors
+    // Method to list doctors one page at a time
     @GetMapping("/docList")
-    @Operation(summary = "List all doctors")
-    public String listDoctors(Model model) {
-        List<Doctor> doctors = doctorServiceImpl.getAllDoctors();
-        model.addAttribute("doctors", doctors);
-        return "DoctorsList"; // The view that lists all doctors
+    @Operation(summary = "List doctors page by page")
+    public String listDoctors(@RequestParam(required = false) String sort,
+                              @RequestParam(required = false) String dir,
+                              @RequestParam(required = false) Integer size,
+                              @RequestParam(required = false) String after,
+                              @RequestParam(required = false) String before,
+                              Model model) {
+        ListPage<Doctor> page = doctorServiceImpl.getDoctorsPage(sort, dir, size, after, before);
+        model.addAttribute("doctors", page.getContent());
+        model.addAttribute("page", page);
+        return "DoctorsList"; // The view that lists the doctors
     }
 }
\ No newline at end of file
@@ -1,19 +1,24 @@
 package org.user.app.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.user.app.config.CurrentUser;
+import org.user.app.dto.AvailableSlot;
+import org.user.app.dto.CalendarDay;
+import org.user.app.dto.CalendarPeriod;
+import org.user.app.dto.DoctorAvailability;
+import org.user.app.dto.NextAvailableSlot;
+import org.user.app.dto.PatientAppointmentRow;
 import org.user.app.entity.Appointment;
+import org.user.app.entity.AppointmentStatus;
 import org.user.app.entity.Doctor;
-import org.user.app.entity.Medication;
-import org.user.app.entity.Patient;
 import org.user.app.exceptions.*;
 import org.user.app.service.*;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -30,9 +35,6 @@ public class AppointmentController {
     @Autowired
     private AppointmentServiceImpl appointmentServiceImpl;
     
-    @Autowired
-    private PatientServiceImpl patientServiceImpl;
-    
     @Autowired
     private DoctorServiceImpl doctorServiceImpl;
     
@@ -69,7 +71,7 @@ public class AppointmentController {
             @RequestParam @Parameter(description = "Date to check for available doctors") LocalDate date, 
             Model model) {
         try {
-            List<Doctor> doctors = appointmentServiceImpl.findAvailableDoctorsOnDate(date);
+            List<DoctorAvailability> doctors = appointmentServiceImpl.findAvailableDoctorsOnDate(date);
             model.addAttribute("doctors", doctors);
             model.addAttribute("date", date);
         } catch (NoAvailableDoctorsException e) {
@@ -98,7 +100,7 @@ public class AppointmentController {
             @RequestParam LocalDate date, 
             Model model) {
         try {
-            List<Appointment> appointments = appointmentServiceImpl.findAvailableAppointments(doctorId, date);
+            List<AvailableSlot> appointments = appointmentServiceImpl.findAvailableAppointments(doctorId, date);
             Doctor doctor = doctorServiceImpl.getDoctorById(doctorId)
                                              .orElseThrow(() -> new DoctorNotFoundException("Doctor with ID " + doctorId + " not found"));
             model.addAttribute("appointments", appointments);
@@ -113,6 +115,77 @@ public class AppointmentController {
         }
     }
 
+    /**
+     * Show a doctor's free slots for a whole week or month, loaded with a single range query.
+     *
+     * @param doctorId ID of the doctor
+     * @param date A date within the week or month to show, today by default
+     * @param period WEEK or MONTH
+     * @param model Model for Thymeleaf
+     * @return Thymeleaf template for the availability calendar
+     */
+    @GetMapping("/calendar")
+    @Operation(summary = "Get a doctor's free slots for a week or a month")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Calendar displayed"),
+        @ApiResponse(responseCode = "404", description = "Doctor not found")
+    })
+    public String viewAvailableCalendar(
+            @RequestParam Long doctorId,
+            @RequestParam(required = false) LocalDate date,
+            @RequestParam(defaultValue = "WEEK") CalendarPeriod period,
+            Model model) {
+        LocalDate day = date != null ? date : LocalDate.now();
+        Doctor doctor = doctorServiceImpl.getDoctorById(doctorId)
+                                         .orElseThrow(() -> new DoctorNotFoundException("Doctor with ID " + doctorId + " not found"));
+        List<CalendarDay> days = appointmentServiceImpl.findAvailableCalendar(doctorId, period.start(day), period.end(day));
+        model.addAttribute("doctor", doctor);
+        model.addAttribute("days", days);
+        model.addAttribute("period", period);
+        model.addAttribute("previous", period.previous(day));
+        model.addAttribute("next", period.next(day));
+
+        return "availableCalendar";
+    }
+
+    /**
+     * Find the earliest free slots across all doctors of a specialization, optionally within a time of day.
+     * Without a specialization only the search form is shown.
+     *
+     * @param specialization Specialization to search, or null to show the form
+     * @param earliest Earliest start time of day, or null
+     * @param latest Latest end time of day, or null
+     * @param limit Maximum number of slots to list
+     * @param model Model for Thymeleaf
+     * @return Thymeleaf template for the next available slots
+     */
+    @GetMapping("/nextAvailable")
+    @Operation(summary = "Find the earliest free slots across all doctors of a specialization")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Search form or slots displayed"),
+        @ApiResponse(responseCode = "400", description = "Invalid time format")
+    })
+    public String viewNextAvailable(
+            @RequestParam(required = false) @Parameter(description = "Specialization of the doctor") String specialization,
+            @RequestParam(required = false) @Parameter(description = "Earliest start time, e.g. 13:00") LocalTime earliest,
+            @RequestParam(required = false) @Parameter(description = "Latest end time, e.g. 17:00") LocalTime latest,
+            @RequestParam(defaultValue = "10") @Parameter(description = "Maximum number of slots") int limit,
+            Model model) {
+        model.addAttribute("specializations", doctorServiceImpl.getSpecializations());
+        model.addAttribute("specialization", specialization);
+        model.addAttribute("earliest", earliest);
+        model.addAttribute("latest", latest);
+        if (specialization != null && !specialization.isBlank()) {
+            try {
+                List<NextAvailableSlot> slots = appointmentServiceImpl.findNextAvailable(specialization, earliest, latest, limit);
+                model.addAttribute("slots", slots);
+            } catch (NoAvailableDoctorsException | NoAvailableAppointmentsException ex) {
+                model.addAttribute("errorMessage", ex.getMessage());
+            }
+        }
+        return "nextAvailable";
+    }
+
     /**
      * Get the final booking form for an appointment.
      *
@@ -128,12 +201,9 @@ public class AppointmentController {
     })
     public String getBookingForm(
             @PathVariable Long appointmentId, 
+            CurrentUser currentUser,
             Model model) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String loggedInEmail = authentication.getName();
-
-        Patient patient = patientServiceImpl.getPatientByEmail(loggedInEmail);
-        model.addAttribute("patient", patient);
+        model.addAttribute("patient", currentUser);
 
         Appointment appointment = appointmentServiceImpl.findAppointmentById(appointmentId);
         model.addAttribute("appointment", appointment);
@@ -142,35 +212,42 @@ public class AppointmentController {
     }
 
     /**
-     * Book an appointment for a patient.
+     * Book an appointment for the logged-in patient.
      *
-     * @param patientId ID of the patient
      * @param appointmentId ID of the appointment
      * @param symptoms Patient's symptoms
-     * @return Redirect to patient's appointments page
+     * @param currentUser the logged-in patient, who the slot is booked for
+     * @param model Model for Thymeleaf
+     * @return Redirect to patient's appointments page, or the booking form if the slot was taken meanwhile
      */
     @PostMapping("/book")
     @Operation(summary = "Book an appointment for a patient")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "302", description = "Appointment booked successfully"),
-        @ApiResponse(responseCode = "400", description = "Invalid patient ID or appointment ID")
+        @ApiResponse(responseCode = "400", description = "Invalid appointment ID"),
+        @ApiResponse(responseCode = "409", description = "Appointment already booked by another patient")
     })
     public String bookAppointment(
-            @RequestParam Long patientId, 
             @RequestParam Long appointmentId, 
-            @RequestParam String symptoms) {
-        Appointment appointment = appointmentServiceImpl.findAppointmentById(appointmentId);
-        appointment.setSymptoms(symptoms); // Set symptoms
-        appointmentServiceImpl.bookAppointment(patientId, appointment);
-
-        return "redirect:/appointments/viewAll?patientId=" + patientId;
+            @RequestParam String symptoms,
+            CurrentUser currentUser,
+            Model model) {
+        try {
+            appointmentServiceImpl.bookAppointment(currentUser.getId(), appointmentId, symptoms);
+            return "redirect:/appointments/viewAll?patientId=" + currentUser.getId();
+        } catch (SlotAlreadyBookedException ex) {
+            model.addAttribute("patient", currentUser);
+            model.addAttribute("appointment", appointmentServiceImpl.findAppointmentById(appointmentId));
+            model.addAttribute("errorMessage", "Sorry, this slot has just been booked by someone else. Please choose another slot.");
+            return "bookingForm";
+        }
     }
 
     /**
-     * Cancel an appointment for a patient.
+     * Cancel an appointment of the logged-in patient.
      *
-     * @param patientId ID of the patient
      * @param appointmentId ID of the appointment
+     * @param currentUser the logged-in patient; only their own bookings can be cancelled
      * @param model Model for Thymeleaf
      * @return Redirect to patient's appointments page or error view
      */
@@ -178,19 +255,17 @@ public class AppointmentController {
     @Operation(summary = "Cancel an appointment for a patient")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "302", description = "Appointment cancelled successfully"),
-        @ApiResponse(responseCode = "400", description = "Invalid patient ID or appointment ID")
+        @ApiResponse(responseCode = "400", description = "Invalid appointment ID")
     })
     public String cancelAppointment(
-            @RequestParam Long patientId, 
             @RequestParam Long appointmentId, 
+            CurrentUser currentUser,
             Model model) {
         try {
-            appointmentServiceImpl.cancelAppointment(appointmentId, patientId);
-            return "redirect:/appointments/viewAll?patientId=" + patientId;
-        } catch (CannotCancelWithinFourHoursException ex) {
-            Patient patient = patientServiceImpl.getPatientById(patientId)
-                                               .orElseThrow(() -> new PatientNotFoundException("Patient with ID " + patientId + " not found"));
-            model.addAttribute("patient", patient);
+            appointmentServiceImpl.cancelAppointment(appointmentId, currentUser.getId());
+            return "redirect:/appointments/viewAll?patientId=" + currentUser.getId();
+        } catch (CannotCancelWithinFourHoursException | InvalidStatusTransitionException ex) {
+            model.addAttribute("patient", currentUser);
             model.addAttribute("errorMessage", ex.getMessage());
             return "viewAppointments"; 
         }
@@ -200,7 +275,7 @@ public class AppointmentController {
      * View all appointments for a patient by status.
      *
      * @param patientId ID of the patient
-     * @param status Status of the appointments (default: "Booked")
+     * @param status Status of the appointments (default: BOOKED)
      * @param model Model for Thymeleaf
      * @return Thymeleaf template for viewing appointments
      */
@@ -212,24 +287,17 @@ public class AppointmentController {
     })
     public String getAppointmentsByStatusAndPatientId(
             @RequestParam Long patientId,
-            @RequestParam(required = false, defaultValue = "Booked") String status, 
+            @RequestParam(required = false, defaultValue = "BOOKED") AppointmentStatus status, 
+            CurrentUser currentUser,
             Model model) {
         try {
-            List<Appointment> appointments = appointmentServiceImpl.findByPatientIdAndStatus(patientId, status);
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String loggedInEmail = authentication.getName();
-            
-            Patient patient = patientServiceImpl.getPatientByEmail(loggedInEmail);
-            model.addAttribute("patient", patient);
+            List<PatientAppointmentRow> appointments = appointmentServiceImpl.findByPatientIdAndStatus(patientId, status);
+            model.addAttribute("patient", currentUser);
             model.addAttribute("appointments", appointments);
             model.addAttribute("status", status); 
             return "viewAppointments";
         } catch (AppointmentNotFoundException ex) {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String loggedInEmail = authentication.getName();
-
-            Patient patient = patientServiceImpl.getPatientByEmail(loggedInEmail);
-            model.addAttribute("patient", patient);
+            model.addAttribute("patient", currentUser);
             model.addAttribute("errorMessage", ex.getMessage());
             return "viewAppointments";
         }
@@ -272,9 +340,8 @@ public class AppointmentController {
     public String getMedicationByAppointmentId(
             @RequestParam Long appointmentId, 
             Model model) {
-        List<Medication> medications = medicationServiceImpl.getMedications(appointmentId);
-        model.addAttribute("medications", medications);
-        Appointment appointment = appointmentServiceImpl.findAppointmentById(appointmentId);
+        Appointment appointment = medicationServiceImpl.getPrescription(appointmentId);
+        model.addAttribute("medications", appointment.getMedications());
         model.addAttribute("appointment", appointment);
         return "patlistMedications";
     }
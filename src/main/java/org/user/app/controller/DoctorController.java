@@ -2,17 +2,20 @@ package org.user.app.controller;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.user.app.config.CurrentUser;
+import org.user.app.dto.CalendarDay;
+import org.user.app.dto.CalendarPeriod;
+import org.user.app.dto.DoctorAppointmentRow;
 import org.user.app.entity.Appointment;
+import org.user.app.entity.AppointmentStatus;
 import org.user.app.entity.Doctor;
 import org.user.app.entity.Patient;
 import org.user.app.exceptions.AppointmentNotFoundException;
-import org.user.app.repository.DoctorRepository;
+import org.user.app.exceptions.DoctorNotFoundException;
 import org.user.app.service.AppointmentServiceImpl;
 import org.user.app.service.DoctorServiceImpl;
 
@@ -35,9 +38,6 @@ public class DoctorController {
     @Autowired
     private DoctorServiceImpl doctorServiceImpl;
     
-    @Autowired
-    private DoctorRepository doctorRepository;
-    
     @Autowired
     private AppointmentServiceImpl appointmentServiceImpl;
 
@@ -95,12 +95,8 @@ public class DoctorController {
         @ApiResponse(responseCode = "200", description = "Patients found"),
         @ApiResponse(responseCode = "400", description = "Error fetching patients")
     })
-    public String viewPatients(Model model) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String doctorEmail = authentication.getName();
-
-        Doctor doctor = doctorServiceImpl.getDoctorByEmail(doctorEmail);
-        Set<Patient> patients = doctorServiceImpl.findPatients(doctor);
+    public String viewPatients(CurrentUser currentUser, Model model) {
+        Set<Patient> patients = doctorServiceImpl.findPatients(currentUser.getId());
         model.addAttribute("patients", patients);
 
         return "listPatients";
@@ -115,11 +111,8 @@ public class DoctorController {
     @GetMapping("/appointments/selectDate")
     @Operation(summary = "Show a form to select a date for viewing appointments")
     @ApiResponse(responseCode = "200", description = "Date selection form displayed")
-    public String showDateSelectionForm(Model model) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Doctor doctor = doctorRepository.findByEmail(authentication.getName());
-        Long doctorId = doctor.getId();
-        model.addAttribute("doctorId", doctorId);
+    public String showDateSelectionForm(CurrentUser currentUser, Model model) {
+        model.addAttribute("doctorId", currentUser.getId());
 
         return "doctorAppointments";
     }
@@ -140,14 +133,13 @@ public class DoctorController {
     })
     public String viewDoctorAppointments(
             @RequestParam @Parameter(description = "Date for viewing appointments") LocalDate date,
+            CurrentUser currentUser,
             Model model) {
 
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            Doctor doctor = doctorRepository.findByEmail(authentication.getName());
-            Long doctorId = doctor.getId();
+            Long doctorId = currentUser.getId();
 
-            List<Appointment> appointments = appointmentServiceImpl.viewAppointments(doctorId, date);
+            List<DoctorAppointmentRow> appointments = appointmentServiceImpl.viewAppointments(doctorId, date);
             model.addAttribute("appointments", appointments);
             model.addAttribute("doctorId", doctorId);
             model.addAttribute("date", date);
@@ -160,6 +152,32 @@ public class DoctorController {
         }
     }
 
+    /**
+     * View the logged-in doctor's appointments for a whole week or month, loaded with a single range query.
+     *
+     * @param date a date within the week or month to show, today by default
+     * @param period WEEK or MONTH
+     * @param model the model object used to pass attributes to the view
+     * @return the name of the view to display the calendar
+     */
+    @GetMapping("/calendar")
+    @Operation(summary = "View the logged-in doctor's calendar for a week or a month")
+    @ApiResponse(responseCode = "200", description = "Calendar displayed")
+    public String viewCalendar(
+            @RequestParam(required = false) @Parameter(description = "A date within the week or month, today by default") LocalDate date,
+            @RequestParam(defaultValue = "WEEK") @Parameter(description = "WEEK or MONTH") CalendarPeriod period,
+            CurrentUser currentUser,
+            Model model) {
+        LocalDate day = date != null ? date : LocalDate.now();
+        List<CalendarDay> days = appointmentServiceImpl.viewCalendar(currentUser.getId(), period.start(day), period.end(day));
+        model.addAttribute("days", days);
+        model.addAttribute("period", period);
+        model.addAttribute("previous", period.previous(day));
+        model.addAttribute("next", period.next(day));
+
+        return "doctorCalendar";
+    }
+
     /**
      * Show the form to update the status of an appointment.
      *
@@ -196,11 +214,12 @@ public class DoctorController {
                description = "Update the status of a specific appointment")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Appointment status updated successfully"),
-        @ApiResponse(responseCode = "404", description = "Appointment not found")
+        @ApiResponse(responseCode = "404", description = "Appointment not found"),
+        @ApiResponse(responseCode = "409", description = "Appointment cannot move to the status from its current one")
     })
     public String updateAppointmentStatus(
             @RequestParam @Parameter(description = "ID of the appointment") Long appointmentId,
-            @RequestParam @Parameter(description = "New status of the appointment") String status,
+            @RequestParam @Parameter(description = "New status of the appointment") AppointmentStatus status,
             Model model) {
 
         // Update the appointment status
@@ -221,11 +240,9 @@ public class DoctorController {
     @Operation(summary = "View details of the logged-in doctor", 
                description = "Retrieve and display details of the currently logged-in doctor")
     @ApiResponse(responseCode = "200", description = "Doctor details displayed")
-    public String viewDoctor(Model model) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String loggedInEmail = authentication.getName();
-
-        Doctor doctor = doctorServiceImpl.getDoctorByEmail(loggedInEmail);
+    public String viewDoctor(CurrentUser currentUser, Model model) {
+        Doctor doctor = doctorServiceImpl.getDoctorById(currentUser.getId())
+                .orElseThrow(() -> new DoctorNotFoundException("Doctor not found with ID: " + currentUser.getId()));
         model.addAttribute("doctor", doctor);
 
         return "viewDoctor";
@@ -5,10 +5,14 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.user.app.dto.DrugSuggestion;
+import org.user.app.dto.PrescriptionForm;
 import org.user.app.entity.Appointment;
 import org.user.app.entity.Medication;
 import org.user.app.exceptions.MedicationNotFoundException;
 import org.user.app.service.AppointmentServiceImpl;
+import org.user.app.service.DrugCatalogService;
+import org.user.app.service.DrugNameIndex;
 import org.user.app.service.MedicationServiceImpl;
 
 import java.util.List;
@@ -31,6 +35,11 @@ public class MedicationController {
     @Autowired
     private AppointmentServiceImpl appointmentServiceImpl;
 
+    @Autowired
+    private DrugCatalogService drugCatalogService;
+
+    private static final int PRESCRIPTION_ROWS = 5;  // Empty rows offered by the multi-medication form
+
 ;
 
     // Show form to add medication to an appointment
@@ -45,6 +54,7 @@ public class MedicationController {
         Appointment appointment = appointmentServiceImpl.findAppointmentById(appointmentId);
         model.addAttribute("appointment", appointment);
         model.addAttribute("medication", new Medication());
+        model.addAttribute("prescription", new PrescriptionForm(PRESCRIPTION_ROWS));
         model.addAttribute("appointmentId", appointmentId);
         return "addMedication";
     }
@@ -67,14 +77,55 @@ public class MedicationController {
             return "addMedication";
         }
 
-        appointmentServiceImpl.addMeds(appointmentId, medication);
+        medicationServiceImpl.prescribe(appointmentId, List.of(medication));
         Appointment appointment = appointmentServiceImpl.findAppointmentById(appointmentId);
         model.addAttribute("appointment", appointment);
         model.addAttribute("medication", new Medication());
+        model.addAttribute("prescription", new PrescriptionForm(PRESCRIPTION_ROWS));
+        model.addAttribute("appointmentId", appointmentId);
         model.addAttribute("message", "Medication added successfully");
         return "addMedication";
     }
 
+    // Add several medications to an appointment in one submission
+    @PostMapping("/prescribe")
+    @Operation(summary = "Prescribe medications", 
+               description = "Handle form submission to add several medications to an appointment at once")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "302", description = "Medications added, redirect to the medication list"),
+        @ApiResponse(responseCode = "404", description = "Appointment not found")
+    })
+    public String prescribe(
+            @RequestParam Long appointmentId,
+            @Valid @ModelAttribute("prescription") PrescriptionForm prescription,
+            BindingResult result,
+            Model model) {
+
+        if (result.hasErrors()) {
+            model.addAttribute("appointment", appointmentServiceImpl.findAppointmentById(appointmentId));
+            model.addAttribute("medication", new Medication());
+            model.addAttribute("appointmentId", appointmentId);
+            return "addMedication";
+        }
+
+        List<Medication> medications = prescription.getFilledMedications();
+        if (!medications.isEmpty()) {
+            medicationServiceImpl.prescribe(appointmentId, medications);
+        }
+        return "redirect:/medications/listMed?appointmentId=" + appointmentId;
+    }
+
+    // Suggest catalog drug names for the autocomplete of the medication forms
+    @GetMapping("/catalog")
+    @ResponseBody
+    @Operation(summary = "Suggest drug names", 
+               description = "Return catalog entries whose name, or one of its words, starts with the given text")
+    @ApiResponse(responseCode = "200", description = "Matching catalog entries, in name order")
+    public List<DrugSuggestion> suggestDrugs(@RequestParam String q,
+            @RequestParam(defaultValue = "" + DrugNameIndex.MAX_SUGGESTIONS) int limit) {
+        return drugCatalogService.suggest(q, limit);
+    }
+
     // Show form to update medication details
     @GetMapping("/updateForm")
     @Operation(summary = "Show form to update medication", 
@@ -140,9 +191,8 @@ public class MedicationController {
         @ApiResponse(responseCode = "404", description = "Appointment not found")
     })
     public String getMedications(@RequestParam Long appointmentId, Model model) {
-        List<Medication> medications = medicationServiceImpl.getMedications(appointmentId);
-        Appointment appointment = appointmentServiceImpl.findAppointmentById(appointmentId);
-        model.addAttribute("medications", medications);
+        Appointment appointment = medicationServiceImpl.getPrescription(appointmentId);
+        model.addAttribute("medications", appointment.getMedications());
         model.addAttribute("appointmentId", appointmentId);
         model.addAttribute("appointment", appointment);
         return "listMedications";
@@ -5,14 +5,14 @@ package org.user.app.controller;
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.user.app.config.CurrentUser;
 import org.user.app.entity.Doctor;
 import org.user.app.entity.Patient;
+import org.user.app.exceptions.PatientNotFoundException;
 import org.user.app.service.PatientServiceImpl;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -69,12 +69,10 @@ public class PatientController {
         @ApiResponse(responseCode = "200", description = "Patient information retrieved successfully"),
         @ApiResponse(responseCode = "404", description = "Patient not found")
     })
-    public String viewPatient(Model model) {
+    public String viewPatient(CurrentUser currentUser, Model model) {
 
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String loggedInEmail = authentication.getName();
-
-        Patient patient = patientServiceImpl.getPatientByEmail(loggedInEmail);
+        Patient patient = patientServiceImpl.getPatientById(currentUser.getId())
+                .orElseThrow(() -> new PatientNotFoundException("Patient not found with ID: " + currentUser.getId()));
 
         model.addAttribute("patient", patient);
 
@@ -90,14 +88,9 @@ public class PatientController {
         @ApiResponse(responseCode = "400", description = "Error fetching patients"),
         @ApiResponse(responseCode = "404", description = "Doctor not found")
     })
-    public String viewDoctors(Model model) {
-
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String loggedInEmail = authentication.getName(); 
-
-        Patient patient = patientServiceImpl.getPatientByEmail(loggedInEmail);
+    public String viewDoctors(CurrentUser currentUser, Model model) {
 
-        Set<Doctor> doctors = patientServiceImpl.viewDoctors(patient);
+        Set<Doctor> doctors = patientServiceImpl.viewDoctors(currentUser.getId());
         model.addAttribute("doctors", doctors);
 
         return "listDoctors";
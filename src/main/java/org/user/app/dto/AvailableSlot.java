@@ -0,0 +1,47 @@
+package org.user.app.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.user.app.entity.Appointment;
+
+/**
+ * A free appointment slot as shown on the slot selection page.
+ */
+public class AvailableSlot {
+
+    private final Long id;  // ID of the underlying appointment
+
+    private final LocalDate appointmentDate;  // Date of the slot
+
+    private final LocalTime startTime;  // Slot start time
+
+    private final LocalTime endTime;  // Slot end time
+
+	public AvailableSlot(Long id, LocalDate appointmentDate, LocalTime startTime, LocalTime endTime) {
+		this.id = id;
+		this.appointmentDate = appointmentDate;
+		this.startTime = startTime;
+		this.endTime = endTime;
+	}
+
+	public AvailableSlot(Appointment appointment) {
+		this(appointment.getId(), appointment.getAppointmentDate(), appointment.getStartTime(), appointment.getEndTime());
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public LocalDate getAppointmentDate() {
+		return appointmentDate;
+	}
+
+	public LocalTime getStartTime() {
+		return startTime;
+	}
+
+	public LocalTime getEndTime() {
+		return endTime;
+	}
+}
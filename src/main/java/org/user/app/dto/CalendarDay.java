@@ -0,0 +1,61 @@
+package org.user.app.dto;
+
+import org.user.app.entity.AppointmentStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One day of a calendar page with its slots in start-time order.
+ */
+public class CalendarDay {
+
+    private final LocalDate date;  // The day
+
+    private final List<CalendarSlot> slots;  // Slots of the day, in start-time order
+
+	public CalendarDay(LocalDate date, List<CalendarSlot> slots) {
+		this.date = date;
+		this.slots = slots;
+	}
+
+	/**
+	 * Split slots ordered by date and start time into one entry per day of a range,
+	 * including the days without any slot.
+	 *
+	 * @param from the first day (inclusive)
+	 * @param to the last day (inclusive)
+	 * @param slots the slots of the range, ordered by date and start time
+	 * @return one calendar day per date from {@code from} to {@code to}
+	 */
+	public static List<CalendarDay> byDay(LocalDate from, LocalDate to, List<CalendarSlot> slots) {
+		List<CalendarDay> days = new ArrayList<>();
+		int next = 0;
+		for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+			int first = next;
+			while (next < slots.size() && slots.get(next).getAppointmentDate().equals(date)) {
+				next++;
+			}
+			days.add(new CalendarDay(date, slots.subList(first, next)));
+		}
+		return days;
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	public List<CalendarSlot> getSlots() {
+		return slots;
+	}
+
+	// Slots taken by a patient
+	public List<CalendarSlot> getAppointments() {
+		return slots.stream().filter(slot -> slot.getStatus() != AppointmentStatus.AVAILABLE).toList();
+	}
+
+	public long getFreeCount() {
+		return slots.stream().filter(slot -> slot.getStatus() == AppointmentStatus.AVAILABLE).count();
+	}
+}
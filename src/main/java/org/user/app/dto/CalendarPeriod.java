@@ -0,0 +1,32 @@
+package org.user.app.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Length of a calendar page: the Monday-to-Sunday week or the calendar month around a date.
+ */
+public enum CalendarPeriod {
+
+    WEEK,
+    MONTH;
+
+    public LocalDate start(LocalDate date) {
+        return this == WEEK ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : date.withDayOfMonth(1);
+    }
+
+    public LocalDate end(LocalDate date) {
+        return this == WEEK ? start(date).plusDays(6) : date.with(TemporalAdjusters.lastDayOfMonth());
+    }
+
+    // A date in the page before the one containing the given date
+    public LocalDate previous(LocalDate date) {
+        return this == WEEK ? date.minusWeeks(1) : date.minusMonths(1);
+    }
+
+    // A date in the page after the one containing the given date
+    public LocalDate next(LocalDate date) {
+        return this == WEEK ? date.plusWeeks(1) : date.plusMonths(1);
+    }
+}
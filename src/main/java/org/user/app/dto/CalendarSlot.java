@@ -0,0 +1,64 @@
+package org.user.app.dto;
+
+import org.user.app.entity.AppointmentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One appointment slot of a calendar page.
+ * Built directly by a date-range projection query, so no Appointment or Patient entities are loaded.
+ */
+public class CalendarSlot {
+
+    private final Long id;  // ID of the appointment
+
+    private final LocalDate appointmentDate;  // Day of the slot
+
+    private final LocalTime startTime;  // Slot start time
+
+    private final AppointmentStatus status;  // Current status of the appointment
+
+    private final String patientFirstName;  // Patient's first name, null for a free slot or on patient pages
+
+    private final String patientLastName;  // Patient's last name, null for a free slot or on patient pages
+
+	public CalendarSlot(Long id, LocalDate appointmentDate, LocalTime startTime, AppointmentStatus status,
+			String patientFirstName, String patientLastName) {
+		this.id = id;
+		this.appointmentDate = appointmentDate;
+		this.startTime = startTime;
+		this.status = status;
+		this.patientFirstName = patientFirstName;
+		this.patientLastName = patientLastName;
+	}
+
+	// A slot without patient details
+	public CalendarSlot(Long id, LocalDate appointmentDate, LocalTime startTime, AppointmentStatus status) {
+		this(id, appointmentDate, startTime, status, null, null);
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public LocalDate getAppointmentDate() {
+		return appointmentDate;
+	}
+
+	public LocalTime getStartTime() {
+		return startTime;
+	}
+
+	public AppointmentStatus getStatus() {
+		return status;
+	}
+
+	public String getPatientFirstName() {
+		return patientFirstName;
+	}
+
+	public String getPatientLastName() {
+		return patientLastName;
+	}
+}
@@ -0,0 +1,13 @@
+package org.user.app.dto;
+
+/**
+ * Login credentials of a patient, doctor or admin account, read by a single query across all three tables.
+ */
+public interface Credential {
+
+    String getEmail();
+
+    String getPassword();
+
+    String getRole();
+}
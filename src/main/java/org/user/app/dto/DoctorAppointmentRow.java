@@ -0,0 +1,50 @@
+package org.user.app.dto;
+
+import org.user.app.entity.AppointmentStatus;
+
+import java.time.LocalTime;
+
+/**
+ * One row of a doctor's daily schedule as shown on the doctor appointments page.
+ * Built directly by a projection query, so no Appointment or Patient entities are loaded.
+ */
+public class DoctorAppointmentRow {
+
+    private final Long id;  // ID of the appointment
+
+    private final LocalTime startTime;  // Slot start time
+
+    private final AppointmentStatus status;  // Current status of the appointment
+
+    private final String patientFirstName;  // Patient's first name, null for a free slot
+
+    private final String patientLastName;  // Patient's last name, null for a free slot
+
+	public DoctorAppointmentRow(Long id, LocalTime startTime, AppointmentStatus status, String patientFirstName, String patientLastName) {
+		this.id = id;
+		this.startTime = startTime;
+		this.status = status;
+		this.patientFirstName = patientFirstName;
+		this.patientLastName = patientLastName;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public LocalTime getStartTime() {
+		return startTime;
+	}
+
+	public AppointmentStatus getStatus() {
+		return status;
+	}
+
+	public String getPatientFirstName() {
+		return patientFirstName;
+	}
+
+	public String getPatientLastName() {
+		return patientLastName;
+	}
+}
@@ -0,0 +1,47 @@
+package org.user.app.dto;
+
+/**
+ * Lightweight view of a doctor who still has free slots on a given date.
+ * Built directly by an aggregate query or by the in-memory availability index,
+ * so no Doctor or Appointment entities are loaded.
+ */
+public class DoctorAvailability {
+
+    private final Long id;  // Doctor's unique identifier
+
+    private final String firstName;  // Doctor's first name
+
+    private final String lastName;  // Doctor's last name
+
+    private final String specialization;  // Doctor's area of specialization
+
+    private final long freeSlots;  // Number of available slots on the requested date
+
+	public DoctorAvailability(Long id, String firstName, String lastName, String specialization, long freeSlots) {
+		this.id = id;
+		this.firstName = firstName;
+		this.lastName = lastName;
+		this.specialization = specialization;
+		this.freeSlots = freeSlots;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getFirstName() {
+		return firstName;
+	}
+
+	public String getLastName() {
+		return lastName;
+	}
+
+	public String getSpecialization() {
+		return specialization;
+	}
+
+	public long getFreeSlots() {
+		return freeSlots;
+	}
+}
@@ -0,0 +1,23 @@
+package org.user.app.dto;
+
+/**
+ * A medication catalog entry offered by name autocomplete.
+ */
+public final class DrugSuggestion {
+
+    private final Long id;  // Catalog entry ID
+    private final String name;  // Drug name
+
+    public DrugSuggestion(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+}
@@ -0,0 +1,54 @@
+package org.user.app.dto;
+
+import java.time.LocalTime;
+
+/**
+ * One available slot together with its doctor's display fields, used to warm the availability index.
+ */
+public class FreeSlotRow {
+
+    private final Long id;  // ID of the appointment slot
+
+    private final Long doctorId;  // Doctor's unique identifier
+
+    private final String firstName;  // Doctor's first name
+
+    private final String lastName;  // Doctor's last name
+
+    private final String specialization;  // Doctor's area of specialization
+
+    private final LocalTime startTime;  // Slot start time
+
+	public FreeSlotRow(Long id, Long doctorId, String firstName, String lastName, String specialization, LocalTime startTime) {
+		this.id = id;
+		this.doctorId = doctorId;
+		this.firstName = firstName;
+		this.lastName = lastName;
+		this.specialization = specialization;
+		this.startTime = startTime;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Long getDoctorId() {
+		return doctorId;
+	}
+
+	public String getFirstName() {
+		return firstName;
+	}
+
+	public String getLastName() {
+		return lastName;
+	}
+
+	public String getSpecialization() {
+		return specialization;
+	}
+
+	public LocalTime getStartTime() {
+		return startTime;
+	}
+}
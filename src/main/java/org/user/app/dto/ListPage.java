@@ -0,0 +1,57 @@
+package org.user.app.dto;
+
+import java.util.List;
+
+/**
+ * One page of an admin list together with the sort settings it was read with
+ * and the cursors of the neighbouring pages (null when there is no such page).
+ *
+ * @param <T> the type of the listed rows
+ */
+public class ListPage<T> {
+
+    private final List<T> content;  // Rows of this page in display order
+
+    private final String sort;  // Field the list is sorted by
+
+    private final String direction;  // "asc" or "desc"
+
+    private final int size;  // Maximum number of rows per page
+
+    private final String nextCursor;  // Cursor of the page after this one
+
+    private final String previousCursor;  // Cursor of the page before this one
+
+    public ListPage(List<T> content, String sort, String direction, int size, String nextCursor, String previousCursor) {
+        this.content = content;
+        this.sort = sort;
+        this.direction = direction;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public String getDirection() {
+        return direction;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public String getPreviousCursor() {
+        return previousCursor;
+    }
+}
@@ -0,0 +1,70 @@
+package org.user.app.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A free appointment slot found by the next-available search, with the doctor it belongs to.
+ */
+public class NextAvailableSlot {
+
+    private final Long id;  // ID of the underlying appointment
+
+    private final LocalDate appointmentDate;  // Date of the slot
+
+    private final LocalTime startTime;  // Slot start time
+
+    private final LocalTime endTime;  // Slot end time
+
+    private final Long doctorId;  // ID of the doctor
+
+    private final String doctorFirstName;  // Doctor's first name
+
+    private final String doctorLastName;  // Doctor's last name
+
+    private final String specialization;  // Doctor's area of specialization
+
+	public NextAvailableSlot(Long id, LocalDate appointmentDate, LocalTime startTime, LocalTime endTime,
+			Long doctorId, String doctorFirstName, String doctorLastName, String specialization) {
+		this.id = id;
+		this.appointmentDate = appointmentDate;
+		this.startTime = startTime;
+		this.endTime = endTime;
+		this.doctorId = doctorId;
+		this.doctorFirstName = doctorFirstName;
+		this.doctorLastName = doctorLastName;
+		this.specialization = specialization;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public LocalDate getAppointmentDate() {
+		return appointmentDate;
+	}
+
+	public LocalTime getStartTime() {
+		return startTime;
+	}
+
+	public LocalTime getEndTime() {
+		return endTime;
+	}
+
+	public Long getDoctorId() {
+		return doctorId;
+	}
+
+	public String getDoctorFirstName() {
+		return doctorFirstName;
+	}
+
+	public String getDoctorLastName() {
+		return doctorLastName;
+	}
+
+	public String getSpecialization() {
+		return specialization;
+	}
+}
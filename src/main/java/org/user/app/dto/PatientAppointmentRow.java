@@ -0,0 +1,59 @@
+package org.user.app.dto;
+
+import org.user.app.entity.AppointmentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One of a patient's appointments as shown on the patient appointments page.
+ * Built directly by a projection query, so no Appointment or Doctor entities are loaded.
+ */
+public class PatientAppointmentRow {
+
+    private final Long id;  // ID of the appointment
+
+    private final LocalDate appointmentDate;  // Date of the appointment
+
+    private final LocalTime startTime;  // Appointment start time
+
+    private final AppointmentStatus status;  // Current status of the appointment
+
+    private final String doctorFirstName;  // Doctor's first name
+
+    private final String doctorLastName;  // Doctor's last name
+
+	public PatientAppointmentRow(Long id, LocalDate appointmentDate, LocalTime startTime, AppointmentStatus status,
+			String doctorFirstName, String doctorLastName) {
+		this.id = id;
+		this.appointmentDate = appointmentDate;
+		this.startTime = startTime;
+		this.status = status;
+		this.doctorFirstName = doctorFirstName;
+		this.doctorLastName = doctorLastName;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public LocalDate getAppointmentDate() {
+		return appointmentDate;
+	}
+
+	public LocalTime getStartTime() {
+		return startTime;
+	}
+
+	public AppointmentStatus getStatus() {
+		return status;
+	}
+
+	public String getDoctorFirstName() {
+		return doctorFirstName;
+	}
+
+	public String getDoctorLastName() {
+		return doctorLastName;
+	}
+}
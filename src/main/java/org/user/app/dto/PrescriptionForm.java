@@ -0,0 +1,43 @@
+package org.user.app.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.user.app.entity.Medication;
+
+import jakarta.validation.Valid;
+
+/**
+ * Form backing object for prescribing several medications to an appointment in one submission.
+ * Rows left without a medication name are ignored.
+ */
+public class PrescriptionForm {
+
+    @Valid
+    private List<Medication> medications = new ArrayList<>();  // One entry per row of the form
+
+	public PrescriptionForm() {
+	}
+
+	// A form with the given number of empty rows
+	public PrescriptionForm(int rows) {
+		for (int i = 0; i < rows; i++) {
+			medications.add(new Medication());
+		}
+	}
+
+	public List<Medication> getMedications() {
+		return medications;
+	}
+
+	public void setMedications(List<Medication> medications) {
+		this.medications = medications;
+	}
+
+	// The rows that were filled in
+	public List<Medication> getFilledMedications() {
+		return medications.stream()
+				.filter(medication -> medication.getName() != null && !medication.getName().isBlank())
+				.toList();
+	}
+}
@@ -0,0 +1,13 @@
+package org.user.app.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Last date for which a doctor already has appointment slots.
+ */
+public interface SlotHorizon {
+
+    Long getDoctorId();  // Doctor's unique identifier
+
+    LocalDate getLastDate();  // Latest appointment date generated for the doctor
+}
@@ -0,0 +1,16 @@
+package org.user.app.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Doctor, date and start time of an existing appointment slot.
+ */
+public interface SlotKey {
+
+    Long getDoctorId();  // Doctor's unique identifier
+
+    LocalDate getAppointmentDate();  // Date of the slot
+
+    LocalTime getStartTime();  // Start time of the slot
+}
@@ -12,11 +12,18 @@ import java.util.Set;
 
 @Builder
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_appointment_doctor_slot",
+		columnNames = {"doctor_id", "appointment_date", "start_time"}),  // One slot per doctor and start time
+	indexes = {
+	@Index(name = "idx_appointment_doctor_date", columnList = "doctor_id, appointment_date, status"),  // A doctor's slots on a day
+	@Index(name = "idx_appointment_date_status", columnList = "appointment_date, status"),  // Free slots of all doctors on a day, expired slot pruning
+	@Index(name = "idx_appointment_patient_status", columnList = "patient_id, status")  // A patient's appointments by status
+})
 public class Appointment {
 
 	@Id
 	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "App_seq")
-	@SequenceGenerator(name = "App_seq", sequenceName = "App_sequence", allocationSize = 1)
+	@SequenceGenerator(name = "App_seq", sequenceName = "App_sequence", allocationSize = 50)
 	private Long Id;  // Unique ID for each appointment
 
 	@ManyToOne(fetch = FetchType.LAZY)
@@ -37,14 +44,13 @@ public class Appointment {
 	private LocalTime endTime;  // Appointment end time
 
 	@Column(nullable = false)
-	private boolean isAvailable;  // Appointment availability status
-
-	@Column(nullable = false)
-	private String status;  // Appointment status (e.g., CONFIRMED, CANCELED)
+	@Convert(converter = AppointmentStatusConverter.class)
+	private AppointmentStatus status;  // Appointment status, stored as a one-byte code
 
 	private String symptoms;  // Patient's symptoms (optional)
 
 	@OneToMany(mappedBy = "appointment" , cascade = CascadeType.ALL, orphanRemoval = true)
+	@OrderBy
 	@Builder.Default
 	private Set<Medication> medications = new HashSet <>();  // Medications associated with this appointment
 	
@@ -106,19 +112,16 @@ public class Appointment {
 		this.endTime = endTime;
 	}
 
+	// Whether the slot can still be booked
 	public boolean isAvailable() {
-		return isAvailable;
-	}
-
-	public void setAvailable(boolean isAvailable) {
-		this.isAvailable = isAvailable;
+		return status == AppointmentStatus.AVAILABLE;
 	}
 
-	public String getStatus() {
+	public AppointmentStatus getStatus() {
 		return status;
 	}
 
-	public void setStatus(String status) {
+	public void setStatus(AppointmentStatus status) {
 		this.status = status;
 	}
 
@@ -139,7 +142,7 @@ public class Appointment {
 	}
 
 	public Appointment(Long id, Doctor doctor, Patient patient, LocalDate appointmentDate, LocalTime startTime,
-			LocalTime endTime, boolean isAvailable, String status, String symptoms, Set<Medication> medications) {
+			LocalTime endTime, AppointmentStatus status, String symptoms, Set<Medication> medications) {
 		super();
 		Id = id;
 		this.doctor = doctor;
@@ -147,7 +150,6 @@ public class Appointment {
 		this.appointmentDate = appointmentDate;
 		this.startTime = startTime;
 		this.endTime = endTime;
-		this.isAvailable = isAvailable;
 		this.status = status;
 		this.symptoms = symptoms;
 		this.medications = medications;
@@ -0,0 +1,59 @@
+package org.user.app.entity;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Lifecycle of an appointment slot, stored as a one-byte code (see {@link AppointmentStatusConverter}).
+ * <pre>
+ * AVAILABLE --book--> BOOKED --complete--> COMPLETED
+ *     ^                  |
+ *     +-----cancel-------+
+ * </pre>
+ * Transitions are applied with a conditional UPDATE that only matches rows in one of the
+ * {@link #previous() previous} states, so a transition needs no prior read and concurrent ones cannot both succeed.
+ */
+public enum AppointmentStatus {
+
+    AVAILABLE(0),  // Free slot that patients can book
+    BOOKED(1),  // Booked by a patient
+    COMPLETED(2);  // The visit took place
+
+    private final byte code;  // Value stored in appointment.status; never reuse or renumber
+
+    AppointmentStatus(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * The states an appointment may move to this state from.
+     */
+    public Set<AppointmentStatus> previous() {
+        return switch (this) {
+            case AVAILABLE -> EnumSet.of(BOOKED);
+            case BOOKED -> EnumSet.of(AVAILABLE);
+            case COMPLETED -> EnumSet.of(BOOKED);
+        };
+    }
+
+    /**
+     * Whether this state can be set by a doctor on its own. Booking and cancelling also assign
+     * or clear the patient and go through their own service methods.
+     */
+    public boolean isSetByDoctor() {
+        return this == COMPLETED;
+    }
+
+    public static AppointmentStatus fromCode(byte code) {
+        for (AppointmentStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown appointment status code " + code);
+    }
+}
@@ -0,0 +1,22 @@
+package org.user.app.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link AppointmentStatus} as its one-byte code, keeping the status column and its indexes small
+ * and independent of the enum's declaration order.
+ */
+@Converter
+public class AppointmentStatusConverter implements AttributeConverter<AppointmentStatus, Byte> {
+
+    @Override
+    public Byte convertToDatabaseColumn(AppointmentStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public AppointmentStatus convertToEntityAttribute(Byte code) {
+        return code == null ? null : AppointmentStatus.fromCode(code);
+    }
+}
@@ -15,6 +15,11 @@ import jakarta.validation.constraints.Size;
 
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_doctor_email", columnNames = "email"),  // Login lookup
+       indexes = {
+           @Index(name = "idx_doctor_first_name", columnList = "first_name, id"),  // Admin list sorted by first name
+           @Index(name = "idx_doctor_specialization", columnList = "specialization, id")  // Admin list sorted by specialization
+       })
 public class Doctor {
 
     @Id
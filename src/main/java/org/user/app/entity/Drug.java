@@ -0,0 +1,43 @@
+package org.user.app.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * An entry of the medication catalog: the reference list of drug names prescriptions are picked from.
+ */
+@Entity
+public class Drug {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "Drug_seq")
+    @SequenceGenerator(name = "Drug_seq", sequenceName = "Drug_sequence", allocationSize = 50)
+    private Long Id;  // Unique identifier for each catalog entry
+
+    @Column(nullable = false, unique = true)
+    private String name;  // Drug name, e.g. "Amoxicillin 500 mg capsule"
+
+	public Long getId() {
+		return Id;
+	}
+
+	public void setId(Long id) {
+		Id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Drug(Long id, String name) {
+		Id = id;
+		this.name = name;
+	}
+
+	public Drug() {
+
+	}
+}
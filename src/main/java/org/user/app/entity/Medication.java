@@ -3,14 +3,22 @@ package org.user.app.entity;
 import jakarta.persistence.*;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_medication_drug", columnList = "drug_id"),  // Foreign key to the catalog
+    @Index(name = "idx_medication_drug_name", columnList = "drug_id, name")  // Unlinked medications by name, when linking to the catalog
+})
 public class Medication {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "Med_seq")
-    @SequenceGenerator(name = "Med_seq", sequenceName = "Med_sequence", allocationSize = 1)
+    @SequenceGenerator(name = "Med_seq", sequenceName = "Med_sequence", allocationSize = 20)
     private Long Id;  // Unique identifier for each medication
     
-    private String name;  // Name of the medication
+    private String name;  // Name of the medication, when it is not a catalog entry
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "drug_id")
+    private Drug drug;  // The catalog entry prescribed, if the name was picked from the catalog
     
     private String dosage;  // Dosage information for the medication
     
@@ -30,14 +38,23 @@ public class Medication {
 		Id = id;
 	}
 
+	// The catalog name when the medication references the catalog, the free-text name otherwise
 	public String getName() {
-		return name;
+		return drug != null ? drug.getName() : name;
 	}
 
 	public void setName(String name) {
 		this.name = name;
 	}
 
+	public Drug getDrug() {
+		return drug;
+	}
+
+	public void setDrug(Drug drug) {
+		this.drug = drug;
+	}
+
 	public String getDosage() {
 		return dosage;
 	}
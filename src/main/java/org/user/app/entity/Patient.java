@@ -14,6 +14,8 @@ import jakarta.validation.constraints.Size;
 
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_patient_email", columnNames = "email"),  // Login lookup
+       indexes = @Index(name = "idx_patient_first_name", columnList = "first_name, id"))  // Admin list sorted by first name
 public class Patient {
 
     @Id
@@ -1,6 +1,7 @@
 package org.user.app.exceptions;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -9,6 +10,20 @@ import org.springframework.web.servlet.ModelAndView;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+ // Status change not allowed from the appointment's current state
+    @ExceptionHandler(InvalidStatusTransitionException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ModelAndView handleInvalidStatusTransition(InvalidStatusTransitionException ex) {
+        ModelAndView model = new ModelAndView("error");
+        model.addObject("message", ex.getMessage());
+        return model;
+    }
+
+ // Not logged in: rethrow so Spring Security sends the request to the login page
+    @ExceptionHandler(AuthenticationException.class)
+    public void handleAuthentication(AuthenticationException ex) {
+        throw ex;
+    }
 
  // General Exception handler
     @ExceptionHandler(Exception.class)
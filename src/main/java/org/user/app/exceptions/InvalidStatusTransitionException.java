@@ -0,0 +1,9 @@
+package org.user.app.exceptions;
+
+public class InvalidStatusTransitionException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+	public InvalidStatusTransitionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package org.user.app.exceptions;
+
+public class SlotAlreadyBookedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+	public SlotAlreadyBookedException(String message) {
+        super(message);
+    }
+}
@@ -1,10 +1,26 @@
 package org.user.app.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.user.app.dto.CalendarSlot;
+import org.user.app.dto.DoctorAppointmentRow;
+import org.user.app.dto.DoctorAvailability;
+import org.user.app.dto.PatientAppointmentRow;
+import org.user.app.dto.SlotHorizon;
+import org.user.app.dto.SlotKey;
 import org.user.app.entity.Appointment;
+import org.user.app.entity.AppointmentStatus;
+import org.user.app.entity.Patient;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,15 +30,41 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 
 
     /**
-     * Find available appointments for a doctor by date.
+     * Find a doctor's appointments with a given status on a date.
      */
-    List<Appointment> findByDoctorIdAndAppointmentDateAndIsAvailable(
-            Long doctorId, LocalDate date, boolean isAvailable);
+    List<Appointment> findByDoctorIdAndAppointmentDateAndStatus(
+            Long doctorId, LocalDate date, AppointmentStatus status);
 
     /**
-     * Find all appointments for a doctor on a specific date.
+     * Find a doctor's schedule for a date with each booked patient's name, in a single query.
      */
-    List<Appointment> findByDoctorIdAndAppointmentDate(Long doctorId, LocalDate date);
+    @Query("SELECT new org.user.app.dto.DoctorAppointmentRow(a.id, a.startTime, a.status, p.firstName, p.lastName) "
+            + "FROM Appointment a LEFT JOIN a.patient p "
+            + "WHERE a.doctor.id = :doctorId AND a.appointmentDate = :date "
+            + "ORDER BY a.startTime")
+    List<DoctorAppointmentRow> findScheduleRows(@Param("doctorId") Long doctorId, @Param("date") LocalDate date);
+
+    /**
+     * Find a doctor's slots over a date range with each booked patient's name, in a single query
+     * on the doctor/date index.
+     */
+    @Query("SELECT new org.user.app.dto.CalendarSlot(a.id, a.appointmentDate, a.startTime, a.status, p.firstName, p.lastName) "
+            + "FROM Appointment a LEFT JOIN a.patient p "
+            + "WHERE a.doctor.id = :doctorId AND a.appointmentDate BETWEEN :from AND :to "
+            + "ORDER BY a.appointmentDate, a.startTime")
+    List<CalendarSlot> findCalendarRows(@Param("doctorId") Long doctorId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    /**
+     * Find a doctor's free slots over a date range, in a single query on the doctor/date index.
+     */
+    @Query("SELECT new org.user.app.dto.CalendarSlot(a.id, a.appointmentDate, a.startTime, a.status) "
+            + "FROM Appointment a "
+            + "WHERE a.doctor.id = :doctorId AND a.appointmentDate BETWEEN :from AND :to "
+            + "AND a.status = org.user.app.entity.AppointmentStatus.AVAILABLE "
+            + "ORDER BY a.appointmentDate, a.startTime")
+    List<CalendarSlot> findFreeCalendarRows(@Param("doctorId") Long doctorId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
 
     /**
      * Find appointment by ID.
@@ -30,15 +72,117 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     Appointment findAppointmentById(Long appointmentId);
 
     /**
-     * Find appointments by patient ID and status.
+     * Find an appointment together with its doctor and patient, in a single join query.
+     */
+    @EntityGraph(attributePaths = {"doctor", "patient"})
+    Optional<Appointment> findWithDoctorAndPatientById(Long appointmentId);
+
+    /**
+     * Find an appointment together with its doctor, patient and medications with their catalog entries,
+     * in a single join query.
+     */
+    @EntityGraph(attributePaths = {"doctor", "patient", "medications", "medications.drug"})
+    Optional<Appointment> findWithMedicationsById(Long appointmentId);
+
+    /**
+     * Find a patient's appointments with a given status and each doctor's name, in a single query.
      */
-    List<Appointment> findByPatientIdAndStatus(Long patientId, String status);
+    @Query("SELECT new org.user.app.dto.PatientAppointmentRow(a.id, a.appointmentDate, a.startTime, a.status, "
+            + "d.firstName, d.lastName) "
+            + "FROM Appointment a JOIN a.doctor d "
+            + "WHERE a.patient.id = :patientId AND a.status = :status "
+            + "ORDER BY a.appointmentDate, a.startTime")
+    List<PatientAppointmentRow> findPatientRows(@Param("patientId") Long patientId, @Param("status") AppointmentStatus status);
     
     /**
      * Find appointments by appointment ID and patientID.
      */
     Optional<Appointment> findByIdAndPatientId(Long apointmentId, Long patientId);
     
+    /**
+     * Book a slot for a patient only if it is still available, in a single UPDATE.
+     * Returns the number of rows changed: 1 if the slot was booked, 0 if it was already taken or does not exist.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Appointment a SET a.patient = :patient, a.status = org.user.app.entity.AppointmentStatus.BOOKED, "
+            + "a.symptoms = :symptoms WHERE a.id = :appointmentId AND a.status = org.user.app.entity.AppointmentStatus.AVAILABLE")
+    int bookIfAvailable(@Param("appointmentId") Long appointmentId, @Param("patient") Patient patient,
+            @Param("symptoms") String symptoms);
+
+    /**
+     * Release a patient's booked slot if it starts at or after the given moment, in a single UPDATE.
+     * Returns 1 if the slot was freed, 0 if it is not booked by the patient or starts too soon.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Appointment a SET a.patient = NULL, a.status = org.user.app.entity.AppointmentStatus.AVAILABLE, "
+            + "a.symptoms = NULL WHERE a.id = :appointmentId AND a.patient.id = :patientId "
+            + "AND a.status = org.user.app.entity.AppointmentStatus.BOOKED "
+            + "AND (a.appointmentDate > :date OR (a.appointmentDate = :date AND a.startTime >= :time))")
+    int cancelIfBookedFrom(@Param("appointmentId") Long appointmentId, @Param("patientId") Long patientId,
+            @Param("date") LocalDate date, @Param("time") LocalTime time);
+
+    /**
+     * Move an appointment to a new status if it is in one of the given states, in a single UPDATE.
+     * Returns 1 if the status changed, 0 if the appointment does not exist or is in another state.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Appointment a SET a.status = :to WHERE a.id = :appointmentId AND a.status IN :from")
+    int transition(@Param("appointmentId") Long appointmentId, @Param("from") Collection<AppointmentStatus> from,
+            @Param("to") AppointmentStatus to);
+    
+    /**
+     * Find doctors with at least one available slot on a date, together with their free-slot count.
+     */
+    @Query("SELECT new org.user.app.dto.DoctorAvailability(d.id, d.firstName, d.lastName, d.specialization, COUNT(a)) "
+            + "FROM Appointment a JOIN a.doctor d "
+            + "WHERE a.appointmentDate = :date AND a.status = org.user.app.entity.AppointmentStatus.AVAILABLE "
+            + "GROUP BY d.id, d.firstName, d.lastName, d.specialization "
+            + "ORDER BY d.lastName, d.firstName")
+    List<DoctorAvailability> findAvailableDoctorsOnDate(@Param("date") LocalDate date);
+    
+    /**
+     * Find the first date, from a day on, with a free slot of a specialization within a time-of-day window,
+     * probing the doctor/date index of each doctor of the specialization. Null if there is none.
+     */
+    @Query("SELECT MIN(a.appointmentDate) FROM Appointment a JOIN a.doctor d "
+            + "WHERE d.specialization = :specialization AND a.appointmentDate >= :from "
+            + "AND a.status = org.user.app.entity.AppointmentStatus.AVAILABLE "
+            + "AND (:earliest IS NULL OR a.startTime >= :earliest) AND (:latest IS NULL OR a.endTime <= :latest)")
+    LocalDate findFirstFreeDate(@Param("specialization") String specialization, @Param("from") LocalDate from,
+            @Param("earliest") LocalTime earliest, @Param("latest") LocalTime latest);
+    
+    /**
+     * Find the last generated appointment date of each of the given doctors.
+     */
+    @Query("SELECT a.doctor.id AS doctorId, MAX(a.appointmentDate) AS lastDate "
+            + "FROM Appointment a WHERE a.doctor.id IN :doctorIds GROUP BY a.doctor.id")
+    List<SlotHorizon> findLastSlotDates(@Param("doctorIds") List<Long> doctorIds);
+
+    /**
+     * Find the slots the given doctors already have in a date range, read from the unique slot key alone.
+     */
+    @Query("SELECT a.doctor.id AS doctorId, a.appointmentDate AS appointmentDate, a.startTime AS startTime "
+            + "FROM Appointment a WHERE a.doctor.id IN :doctorIds AND a.appointmentDate BETWEEN :from AND :to")
+    List<SlotKey> findSlotKeys(@Param("doctorIds") List<Long> doctorIds, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+    
+    /**
+     * Find IDs of unbooked slots dated before the given day, one page at a time.
+     */
+    @Query("SELECT a.id FROM Appointment a WHERE a.appointmentDate < :date "
+            + "AND a.status = org.user.app.entity.AppointmentStatus.AVAILABLE ORDER BY a.id")
+    List<Long> findExpiredAvailableIds(@Param("date") LocalDate date, Pageable pageable);
+
+    /**
+     * Delete the given slots, re-checking that each is still unbooked and dated before the given day,
+     * in a single DELETE. A slot booked since its ID was read is kept. Returns the number of rows removed.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Appointment a WHERE a.id IN :ids AND a.appointmentDate < :date "
+            + "AND a.status = org.user.app.entity.AppointmentStatus.AVAILABLE")
+    int deleteExpiredAvailable(@Param("ids") List<Long> ids, @Param("date") LocalDate date);
+    
   
 }
   
\ No newline at end of file
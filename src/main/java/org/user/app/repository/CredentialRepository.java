@@ -0,0 +1,25 @@
+package org.user.app.repository;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.user.app.dto.Credential;
+import org.user.app.entity.Admin;
+
+/**
+ * Login credential reads for {@link org.user.app.config.CredentialLookup}.
+ * The query spans the patient, doctor and admin tables; Admin is only the domain type Spring Data requires.
+ */
+public interface CredentialRepository extends Repository<Admin, Long> {
+
+    /**
+     * Find the credentials for an email among patients, doctors and admins in one round trip.
+     * If the email is registered under several roles, the patient account wins, then the doctor account.
+     */
+    @Query(value = "SELECT email, password, role FROM ("
+            + " SELECT email, password, 'PATIENT' AS role, 1 AS priority FROM patient WHERE email = :email"
+            + " UNION ALL SELECT email, password, 'DOCTOR', 2 FROM doctor WHERE email = :email"
+            + " UNION ALL SELECT email, password, 'ADMIN', 3 FROM admin WHERE email = :email"
+            + ") accounts ORDER BY priority LIMIT 1", nativeQuery = true)
+    Credential findByEmail(@Param("email") String email);
+}
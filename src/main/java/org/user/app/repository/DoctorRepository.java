@@ -1,9 +1,18 @@
 package org.user.app.repository;
 
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.user.app.entity.Doctor;
 
+import java.util.List;
+import java.util.Optional;
+
 
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
 
@@ -11,4 +20,21 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
      * Find a doctor by their email.
      */
 	 Doctor findByEmail(String email);
+
+    /**
+     * Find a doctor together with their patients, in a single join query.
+     */
+    @EntityGraph(attributePaths = "patients")
+    Optional<Doctor> findWithPatientsById(Long id);
+
+    /**
+     * List the distinct specializations, read from the specialization index.
+     */
+    @Query("SELECT DISTINCT d.specialization FROM Doctor d ORDER BY d.specialization")
+    List<String> findSpecializations();
+
+    /**
+     * Read up to {@code limit} doctors after (or before) a keyset position in the given order.
+     */
+    Window<Doctor> findBy(ScrollPosition position, Sort sort, Limit limit);
 }
\ No newline at end of file
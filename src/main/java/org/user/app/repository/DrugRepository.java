@@ -0,0 +1,23 @@
+package org.user.app.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.user.app.dto.DrugSuggestion;
+import org.user.app.entity.Drug;
+
+public interface DrugRepository extends JpaRepository<Drug, Long> {
+
+    /**
+     * IDs and names of all catalog entries, to build the autocomplete index.
+     */
+    @Query("SELECT new org.user.app.dto.DrugSuggestion(d.id, d.name) FROM Drug d")
+    List<DrugSuggestion> findSuggestions();
+
+    /**
+     * Names of all catalog entries, used to skip entries already present when importing.
+     */
+    @Query("SELECT d.name FROM Drug d")
+    List<String> findAllNames();
+}
@@ -0,0 +1,49 @@
+package org.user.app.repository;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.stereotype.Repository;
+import org.user.app.dto.FreeSlotRow;
+import org.user.app.entity.AppointmentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Reads the free slots of a date for the availability index, always from the primary pool.
+ * <p>
+ * The index outlives the read that fills it, so a (possibly lagging) read replica must not answer it.
+ * The read runs without a transaction of its own: with a single pool it shares the caller's connection
+ * (the one bound by the caller's transaction, if any), and with a replica it borrows one primary connection
+ * while the caller holds a replica connection. A cold lookup therefore never needs two connections of one pool.
+ */
+@Repository
+public class FreeSlotReader {
+
+    private static final String FREE_SLOTS_ON_DATE =
+            "SELECT a.id, a.doctor_id, d.first_name, d.last_name, d.specialization, a.start_time "
+            + "FROM appointment a JOIN doctor d ON d.id = a.doctor_id "
+            + "WHERE a.appointment_date = ? AND a.status = ?";
+
+    private final JdbcTemplate primary;
+
+    public FreeSlotReader(DataSource dataSource) {
+        // Behind the read-only routing of ReadReplicaConfig, the default target is the primary pool
+        this.primary = new JdbcTemplate(dataSource instanceof LazyConnectionDataSourceProxy routing
+                ? routing.getTargetDataSource()
+                : dataSource);
+    }
+
+    /**
+     * Find every available slot on a date with its doctor's display fields.
+     */
+    public List<FreeSlotRow> findFreeSlotsOnDate(LocalDate date) {
+        return primary.query(FREE_SLOTS_ON_DATE, (rs, rowNum) -> new FreeSlotRow(
+                rs.getLong("id"), rs.getLong("doctor_id"), rs.getString("first_name"), rs.getString("last_name"),
+                rs.getString("specialization"), rs.getObject("start_time", LocalTime.class)),
+                date, AppointmentStatus.AVAILABLE.getCode());
+    }
+}
@@ -1,8 +1,13 @@
 package org.user.app.repository;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.user.app.entity.Medication;
 
 public interface MedicationRepository extends JpaRepository<Medication, Long> {
@@ -11,6 +16,31 @@ public interface MedicationRepository extends JpaRepository<Medication, Long> {
      * Find medications associated with a specific appointment.
      */
     List<Medication> findByAppointmentId(Long appointmentId);
+
+    /**
+     * Find a medication together with its appointment and catalog entry, in a single join query.
+     */
+    @EntityGraph(attributePaths = {"appointment", "drug"})
+    Optional<Medication> findWithAppointmentById(Long medicationId);
+
+    /**
+     * Delete all medications of an appointment in a single statement.
+     *
+     * @return the number of medications deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Medication m WHERE m.appointment.id = :appointmentId")
+    int deleteByAppointmentId(@Param("appointmentId") Long appointmentId);
+
+    /**
+     * Point free-text medications whose name matches a catalog entry at that entry, and clear their name.
+     *
+     * @return the number of medications updated
+     */
+    @Modifying
+    @Query("UPDATE Medication m SET m.drug = (SELECT d FROM Drug d WHERE d.name = m.name), m.name = NULL "
+            + "WHERE m.drug IS NULL AND m.name IN (SELECT d.name FROM Drug d)")
+    int linkToCatalog();
     
     
 }
\ No newline at end of file
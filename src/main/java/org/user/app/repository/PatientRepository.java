@@ -1,8 +1,18 @@
 package org.user.app.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.user.app.entity.Patient;
 
+import java.util.Optional;
+
 
 
 
@@ -14,5 +24,25 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
      */
     Patient findByEmail(String email);
 
+    /**
+     * Find a patient together with their doctors, in a single join query.
+     */
+    @EntityGraph(attributePaths = "doctors")
+    Optional<Patient> findWithDoctorsById(Long id);
+
+    /**
+     * Read up to {@code limit} patients after (or before) a keyset position in the given order.
+     */
+    Window<Patient> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Link a patient to a doctor in the patient_doctor join table if they are not linked yet.
+     * An existing link is left as it is; any other error, such as a missing patient or doctor, is raised.
+     * Returns the number of rows the driver reports as matched.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO patient_doctor (patient_id, doctor_id) VALUES (:patientId, :doctorId) "
+            + "ON DUPLICATE KEY UPDATE patient_id = patient_id", nativeQuery = true)
+    int linkDoctor(@Param("patientId") Long patientId, @Param("doctorId") Long doctorId);
    
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package org.user.app.scheduler;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.user.app.dto.SlotHorizon;
+import org.user.app.entity.Doctor;
+import org.user.app.repository.AppointmentRepository;
+import org.user.app.repository.DoctorRepository;
+import org.user.app.service.AppointmentMetrics;
+import org.user.app.service.AvailabilityIndex;
+import org.user.app.service.SlotGenerator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps every doctor's appointment slots materialized for a rolling window of days ahead
+ * and removes unbooked slots that have already passed.
+ */
+@Component
+@ConditionalOnProperty(name = "slots.horizon.enabled", havingValue = "true", matchIfMissing = true)
+public class SlotHorizonScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotHorizonScheduler.class);
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private SlotGenerator slotGenerator;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private AppointmentMetrics appointmentMetrics;
+
+    @Value("${slots.horizon.days:60}")
+    private int horizonDays;
+
+    @Value("${slots.horizon.doctor-batch-size:50}")
+    private int doctorBatchSize;
+
+    @Value("${slots.horizon.prune-batch-size:1000}")
+    private int pruneBatchSize;
+
+    /**
+     * Nightly job: extend every doctor's slots up to the horizon, then prune expired free slots.
+     */
+    @Scheduled(cron = "${slots.horizon.cron:0 0 2 * * *}")
+    public void maintainHorizon() {
+        LocalDate today = LocalDate.now();
+        int created = extendHorizon(today);
+        int pruned = pruneExpiredSlots(today);
+        availabilityIndex.evictBefore(today);
+        log.info("Slot horizon maintained: {} slots created, {} expired slots removed", created, pruned);
+    }
+
+    /**
+     * Generate the missing slots between each doctor's last generated date and the horizon.
+     * Doctors are read in pages of {@code doctorBatchSize}. This method is not transactional: each
+     * {@link SlotGenerator#generate} call commits on its own, so a failure keeps the slots already created.
+     * A group whose slots are being generated at the same time elsewhere (an admin request, or this job on
+     * another instance) hits the unique slot key; it is rolled back and skipped, since the other run creates them.
+     *
+     * @param today the first day of the horizon
+     * @return the number of slots created
+     */
+    public int extendHorizon(LocalDate today) {
+        LocalDate horizonEnd = today.plusDays(horizonDays);
+        int created = 0;
+
+        Slice<Doctor> page = doctorRepository.findAll(PageRequest.of(0, doctorBatchSize, Sort.by("id")));
+        while (true) {
+            created += extendPage(page.getContent(), today, horizonEnd);
+            if (!page.hasNext()) {
+                break;
+            }
+            page = doctorRepository.findAll(page.nextPageable());
+        }
+        return created;
+    }
+
+    private int extendPage(List<Doctor> doctors, LocalDate today, LocalDate horizonEnd) {
+        if (doctors.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> doctorIds = doctors.stream().map(Doctor::getId).collect(Collectors.toList());
+        Map<Long, LocalDate> lastDates = appointmentRepository.findLastSlotDates(doctorIds).stream()
+                .collect(Collectors.toMap(SlotHorizon::getDoctorId, SlotHorizon::getLastDate));
+
+        // Group doctors sharing the same first missing day so each group is one batched insert run
+        Map<LocalDate, List<Doctor>> doctorsByStart = new TreeMap<>();
+        for (Doctor doctor : doctors) {
+            LocalDate lastDate = lastDates.get(doctor.getId());
+            LocalDate start = (lastDate == null || lastDate.isBefore(today)) ? today : lastDate.plusDays(1);
+            if (!start.isAfter(horizonEnd)) {
+                doctorsByStart.computeIfAbsent(start, date -> new ArrayList<>()).add(doctor);
+            }
+        }
+
+        int created = 0;
+        for (Map.Entry<LocalDate, List<Doctor>> group : doctorsByStart.entrySet()) {
+            try {
+                created += appointmentMetrics.time(AppointmentMetrics.GENERATE_SLOTS,
+                        () -> slotGenerator.generate(group.getValue(), group.getKey(), horizonEnd)).size();
+            } catch (ConstraintViolationException e) {
+                log.warn("Slots from {} for {} doctors were generated concurrently, skipped", group.getKey(), group.getValue().size());
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Delete unbooked slots dated before today, {@code pruneBatchSize} rows per statement.
+     * The delete re-checks the status, so a slot booked after its ID was read is not removed.
+     *
+     * @param today slots strictly before this day are expired
+     * @return the number of slots removed
+     */
+    public int pruneExpiredSlots(LocalDate today) {
+        int pruned = 0;
+        List<Long> ids = appointmentRepository.findExpiredAvailableIds(today, PageRequest.of(0, pruneBatchSize));
+        while (!ids.isEmpty()) {
+            pruned += appointmentRepository.deleteExpiredAvailable(ids, today);
+            ids = appointmentRepository.findExpiredAvailableIds(today, PageRequest.of(0, pruneBatchSize));
+        }
+        return pruned;
+    }
+}
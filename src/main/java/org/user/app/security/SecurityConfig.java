@@ -1,12 +1,21 @@
 package org.user.app.security;
 
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.user.app.config.CustomAuthenticationSuccessHandler;
 import org.user.app.config.CustomUserDetailsService;
@@ -26,6 +35,41 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    /**
+     * Prometheus scrape endpoint: HTTP Basic against the single scrape account from {@code metrics.scrape.*},
+     * no session. Checked before the form-login chain, which would redirect the scraper to the login page.
+     * With no scrape password configured every request is refused.
+     */
+    @Bean
+    @Order(1)
+    SecurityFilterChain metricsScrapeFilterChain(HttpSecurity http,
+            @Value("${metrics.scrape.username:prometheus}") String username,
+            @Value("${metrics.scrape.password:}") String password) throws Exception {
+        http.securityMatcher("/actuator/prometheus")
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(authorizeRequests -> authorizeRequests.anyRequest().hasRole("METRICS"))
+                .httpBasic(Customizer.withDefaults())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authenticationManager(scrapeAuthenticationManager(username, password));
+
+        return http.build();
+    }
+
+    // Kept out of the context so the login chain still picks CustomUserDetailsService as the only UserDetailsService
+    private AuthenticationManager scrapeAuthenticationManager(String username, String password) {
+        InMemoryUserDetailsManager users = new InMemoryUserDetailsManager();
+        if (!password.isBlank()) {
+            users.createUser(User.withUsername(username)
+                    .password(passwordEncoder().encode(password))
+                    .roles("METRICS")
+                    .build());
+        }
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(users);
+        provider.setPasswordEncoder(passwordEncoder());
+        return new ProviderManager(provider);
+    }
+
     @Bean
     SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.disable())
@@ -36,6 +80,7 @@ public class SecurityConfig {
                 .requestMatchers("/doctors/**").hasRole("DOCTOR")
                 .requestMatchers("/patients/**", "/appointments/**").hasRole("PATIENT")
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll() // Liveness checks; /actuator/prometheus has its own chain, other actuator endpoints are admin-only
                 .requestMatchers("/**").hasRole("ADMIN")  // Allow admin to access all URLs
             
                 )
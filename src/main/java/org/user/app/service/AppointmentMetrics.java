@@ -0,0 +1,97 @@
+package org.user.app.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Micrometer meters for the appointment booking paths.
+ * <ul>
+ *   <li>{@code appointments.operation}: latency histogram per operation, tagged with the outcome
+ *       ({@code success} or the exception's simple class name)</li>
+ *   <li>{@code appointments.booking.conflicts}: bookings lost to another patient</li>
+ *   <li>{@code appointments.slots.generated}: appointment slot rows inserted</li>
+ *   <li>{@code appointments.availability.lookups}: availability reads, tagged by whether they were
+ *       answered from the in-memory index or the database</li>
+ * </ul>
+ */
+@Component
+public class AppointmentMetrics {
+
+    public static final String BOOK = "book";
+    public static final String CANCEL = "cancel";
+    public static final String AVAILABLE_DOCTORS = "available_doctors";
+    public static final String AVAILABLE_SLOTS = "available_slots";
+    public static final String NEXT_AVAILABLE = "next_available";
+    public static final String GENERATE_SLOTS = "generate_slots";
+
+    private final MeterRegistry registry;
+
+    private final Counter bookingConflicts;
+
+    private final Counter slotsGenerated;
+
+    public AppointmentMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.bookingConflicts = Counter.builder("appointments.booking.conflicts")
+                .description("Bookings rejected because the slot was taken first")
+                .register(registry);
+        this.slotsGenerated = Counter.builder("appointments.slots.generated")
+                .description("Appointment slot rows inserted")
+                .register(registry);
+    }
+
+    /**
+     * Run an operation and record its latency, tagged with how it ended.
+     *
+     * @param operation the operation name, one of the constants of this class
+     * @param action the operation to run
+     * @return the operation's result
+     */
+    public <T> T time(String operation, Supplier<T> action) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            timer(operation, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void bookingConflict() {
+        bookingConflicts.increment();
+    }
+
+    public void slotsGenerated(int count) {
+        slotsGenerated.increment(count);
+    }
+
+    /**
+     * Count an availability read.
+     *
+     * @param fromIndex true if the in-memory index answered it, false if the database did
+     */
+    public void availabilityLookup(boolean fromIndex) {
+        Counter.builder("appointments.availability.lookups")
+                .tag("source", fromIndex ? "index" : "database")
+                .register(registry)
+                .increment();
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder("appointments.operation")
+                .description("Latency of appointment operations")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -1,10 +1,17 @@
 package org.user.app.service;
 
+import org.user.app.dto.AvailableSlot;
+import org.user.app.dto.CalendarDay;
+import org.user.app.dto.DoctorAppointmentRow;
+import org.user.app.dto.DoctorAvailability;
+import org.user.app.dto.NextAvailableSlot;
+import org.user.app.dto.PatientAppointmentRow;
 import org.user.app.entity.Appointment;
+import org.user.app.entity.AppointmentStatus;
 import org.user.app.entity.Doctor;
-import org.user.app.entity.Medication;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 
@@ -16,14 +23,14 @@ public interface AppointmentService {
      * @param doctorId the ID of the doctor
      * @param date the date for which to find available appointments
      */
-    List<Appointment> findAvailableAppointments(Long doctorId, LocalDate date);
+    List<AvailableSlot> findAvailableAppointments(Long doctorId, LocalDate date);
 
     /**
-     * Find all doctors who have any appointments on a given date.
+     * Find all doctors who have free appointment slots on a given date.
      * 
      * @param date the date for which to find available doctors
      */
-    List<Doctor> findAvailableDoctorsOnDate(LocalDate date);
+    List<DoctorAvailability> findAvailableDoctorsOnDate(LocalDate date);
 
     /**
      * Create half-hour appointment slots for a specific doctor for a range of dates.
@@ -38,10 +45,11 @@ public interface AppointmentService {
      * Book an available appointment for a patient.
      * 
      * @param patientId the ID of the patient
-     * @param availableAppointment the appointment to be booked
+     * @param appointmentId the ID of the appointment to be booked
+     * @param symptoms the patient's symptoms
      * @return the booked appointment
      */
-    Appointment bookAppointment(Long patientId, Appointment availableAppointment);
+    Appointment bookAppointment(Long patientId, Long appointmentId, String symptoms);
 
     /**
      * Find an appointment by its ID.
@@ -56,7 +64,7 @@ public interface AppointmentService {
      * @param patientId the ID of the patient
      * @param status the status of the appointment
      */
-    List<Appointment> findByPatientIdAndStatus(Long patientId, String status);
+    List<PatientAppointmentRow> findByPatientIdAndStatus(Long patientId, AppointmentStatus status);
    
     /**
      * Find appointments by appointmentId and PatientId.
@@ -72,7 +80,7 @@ public interface AppointmentService {
      * @param appointmentId the ID of the appointment
      * @param status the new status to be updated
      */
-    Appointment updateAppointmentStatus(Long appointmentId, String status);
+    Appointment updateAppointmentStatus(Long appointmentId, AppointmentStatus status);
 
     /**
      * View appointments for a doctor on a specific date.
@@ -80,9 +88,36 @@ public interface AppointmentService {
      * @param doctorId the ID of the doctor
      * @param date the date for which to view appointments
      */
-    List<Appointment> viewAppointments(Long doctorId, LocalDate date);
+    List<DoctorAppointmentRow> viewAppointments(Long doctorId, LocalDate date);
+
+    /**
+     * View a doctor's slots over a date range, grouped by day.
+     * 
+     * @param doctorId the ID of the doctor
+     * @param from the first day (inclusive)
+     * @param to the last day (inclusive)
+     */
+    List<CalendarDay> viewCalendar(Long doctorId, LocalDate from, LocalDate to);
+
+    /**
+     * Find a doctor's free slots over a date range, grouped by day. Days before today are left empty.
+     * 
+     * @param doctorId the ID of the doctor
+     * @param from the first day (inclusive)
+     * @param to the last day (inclusive)
+     */
+    List<CalendarDay> findAvailableCalendar(Long doctorId, LocalDate from, LocalDate to);
+
+    /**
+     * Find the earliest free slots across all doctors of a specialization.
+     * 
+     * @param specialization the specialization to match, ignoring case
+     * @param earliest the earliest start time of day, or null for no lower bound
+     * @param latest the latest end time of day, or null for no upper bound
+     * @param limit the maximum number of slots to return
+     */
+    List<NextAvailableSlot> findNextAvailable(String specialization, LocalTime earliest, LocalTime latest, int limit);
     
     Appointment save(Appointment appointment);
     
-    Appointment addMeds(Long appointmentId, Medication medication);
 }
\ No newline at end of file
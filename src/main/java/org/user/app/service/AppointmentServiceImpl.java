@@ -3,29 +3,40 @@ package org.user.app.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.user.app.dto.AvailableSlot;
+import org.user.app.dto.CalendarDay;
+import org.user.app.dto.CalendarSlot;
+import org.user.app.dto.DoctorAppointmentRow;
+import org.user.app.dto.DoctorAvailability;
+import org.user.app.dto.NextAvailableSlot;
+import org.user.app.dto.PatientAppointmentRow;
 import org.user.app.entity.Appointment;
+import org.user.app.entity.AppointmentStatus;
 import org.user.app.entity.Doctor;
-import org.user.app.entity.Medication;
 import org.user.app.entity.Patient;
 import org.user.app.exceptions.AppointmentNotFoundException;
 import org.user.app.exceptions.CannotCancelWithinFourHoursException;
+import org.user.app.exceptions.InvalidStatusTransitionException;
 import org.user.app.exceptions.NoAvailableAppointmentsException;
 import org.user.app.exceptions.NoAvailableDoctorsException;
 import org.user.app.exceptions.PatientNotFoundException;
+import org.user.app.exceptions.SlotAlreadyBookedException;
 import org.user.app.repository.AppointmentRepository;
 import org.user.app.repository.DoctorRepository;
+import org.user.app.repository.MedicationRepository;
 import org.user.app.repository.PatientRepository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 public class AppointmentServiceImpl implements AppointmentService {
 
+    static final int MAX_NEXT_AVAILABLE = 50;  // Most slots one next-available search returns
+
     @Autowired
     private AppointmentRepository appointmentRepository;
    
@@ -34,48 +45,78 @@ public class AppointmentServiceImpl implements AppointmentService {
     
     @Autowired
     private PatientRepository patientRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
     
     @Autowired
     private PatientServiceImpl patientServiceImpl;
     
+    @Autowired
+    private SlotGenerator slotGenerator;
+    
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+    
+    @Autowired
+    private AppointmentMetrics appointmentMetrics;
+    
 
     /**
-     * Find all doctors who have any appointments on a given date.
+     * Find all doctors who have free appointment slots on a given date.
+     * Dates within the slot horizon are answered from the in-memory availability index;
+     * other dates use a single aggregate query.
      *
      * @param date the date for which to find available doctors
-     * @return a list of doctors with appointments on the given date
+     * @return a list of doctors with available appointments on the given date
      */
+    @Transactional(readOnly = true)
     @Override
-    public List<Doctor> findAvailableDoctorsOnDate(LocalDate date) {
-        List<Doctor> doctors = doctorRepository.findAll().stream()
-                .filter(doctor -> !appointmentRepository.findByDoctorIdAndAppointmentDate(doctor.getId(), date).isEmpty())
-                .collect(Collectors.toList());
+    public List<DoctorAvailability> findAvailableDoctorsOnDate(LocalDate date) {
+        return appointmentMetrics.time(AppointmentMetrics.AVAILABLE_DOCTORS, () -> {
+            boolean fromIndex = availabilityIndex.covers(date);
+            appointmentMetrics.availabilityLookup(fromIndex);
+            List<DoctorAvailability> doctors = fromIndex
+                    ? availabilityIndex.doctorsFreeOn(date)
+                    : appointmentRepository.findAvailableDoctorsOnDate(date);
 
-        if (doctors.isEmpty()) {
-            throw new NoAvailableDoctorsException("No doctors available on " + date);
-        }
-        return doctors;
+            if (doctors.isEmpty()) {
+                throw new NoAvailableDoctorsException("No doctors available on " + date);
+            }
+            return doctors;
+        });
     }
 
 
     /**
      * Find available appointments for a specific doctor on a specific date.
+     * Dates within the slot horizon are answered from the in-memory availability index.
      *
      * @param doctorId the ID of the doctor
      * @param date the date for which to find available appointments
-     * @return a list of available appointments for the doctor on the given date
+     * @return a list of available appointment slots for the doctor on the given date
      */
+    @Transactional(readOnly = true)
     @Override
-    public List<Appointment> findAvailableAppointments(Long doctorId, LocalDate date) {
-        List<Appointment> appointments = appointmentRepository.findByDoctorIdAndAppointmentDateAndIsAvailable(doctorId, date, true);
-        if (appointments.isEmpty()) {
-            throw new NoAvailableAppointmentsException("No available appointments for doctor ID " + doctorId + " on " + date);
-        }
-        return appointments;
+    public List<AvailableSlot> findAvailableAppointments(Long doctorId, LocalDate date) {
+        return appointmentMetrics.time(AppointmentMetrics.AVAILABLE_SLOTS, () -> {
+            boolean fromIndex = availabilityIndex.covers(date);
+            appointmentMetrics.availabilityLookup(fromIndex);
+            List<AvailableSlot> appointments = fromIndex
+                    ? availabilityIndex.freeSlots(doctorId, date)
+                    : appointmentRepository.findByDoctorIdAndAppointmentDateAndStatus(doctorId, date, AppointmentStatus.AVAILABLE).stream()
+                            .map(AvailableSlot::new)
+                            .collect(Collectors.toList());
+            if (appointments.isEmpty()) {
+                throw new NoAvailableAppointmentsException("No available appointments for doctor ID " + doctorId + " on " + date);
+            }
+            return appointments;
+        });
     }
     
     /**
      * Create half-hour appointment slots for a specific doctor within a date range.
+     * Slots are written through the batched {@link SlotGenerator}.
      *
      * @param doctor the doctor for whom to create appointments
      * @param startDate the start date for creating appointments
@@ -85,58 +126,45 @@ public class AppointmentServiceImpl implements AppointmentService {
     @Transactional
     @Override
     public List<Appointment> createHalfHourAppointmentsForDoctor(Doctor doctor, LocalDate startDate, LocalDate endDate) {
-        List<Appointment> appointments = new ArrayList<>();
-        LocalTime startTime = LocalTime.of(9, 0); // Start at 9:00 AM
-        LocalTime endTime = LocalTime.of(19, 0); // End at 7:00 PM
-
-        while (!startDate.isAfter(endDate)) {
-            LocalTime currentStartTime = startTime;
-
-            while (currentStartTime.isBefore(endTime)) {
-                Appointment appointment = Appointment.builder()
-                        .doctor(doctor)
-                        .appointmentDate(startDate)
-                        .startTime(currentStartTime)
-                        .endTime(currentStartTime.plusMinutes(30))
-                        .isAvailable(true)
-                        .status("AVAILABLE")
-                        .build();
-
-                appointments.add(appointment);
-                currentStartTime = currentStartTime.plusMinutes(30);
-            }
-
-            startDate = startDate.plusDays(1);
-        }
-
-        return appointmentRepository.saveAll(appointments);
+        return appointmentMetrics.time(AppointmentMetrics.GENERATE_SLOTS,
+                () -> slotGenerator.generate(List.of(doctor), startDate, endDate));
     }
 
     /**
      * Book an available appointment for a patient.
+     * The slot is claimed with a single conditional UPDATE, so when several patients
+     * book the same slot at once exactly one succeeds and no row lock is held across reads.
      *
      * @param patientId the ID of the patient
-     * @param availableAppointment the appointment to be booked
+     * @param appointmentId the ID of the appointment to be booked
+     * @param symptoms the patient's symptoms
      * @return the booked appointment
+     * @throws SlotAlreadyBookedException if the slot was taken by someone else
      */
     @Transactional
     @Override
-    public Appointment bookAppointment(Long patientId, Appointment availableAppointment) {
-        // Fetch patient and ensure they exist
-        Patient patient = patientRepository.findById(patientId)
-                .orElseThrow(() -> new PatientNotFoundException("Patient not found with ID: " + patientId));
-        
-        Doctor doctor = availableAppointment.getDoctor();
-        
-        // Set appointment details
-        availableAppointment.setPatient(patient);
-        availableAppointment.setAvailable(false);
-        availableAppointment.setStatus("BOOKED");
-        availableAppointment.setSymptoms(availableAppointment.getSymptoms());
-        
-        patientServiceImpl.addDoctor(patient, doctor);
+    public Appointment bookAppointment(Long patientId, Long appointmentId, String symptoms) {
+        return appointmentMetrics.time(AppointmentMetrics.BOOK, () -> {
+            // Fetch patient and ensure they exist
+            Patient patient = patientRepository.findById(patientId)
+                    .orElseThrow(() -> new PatientNotFoundException("Patient not found with ID: " + patientId));
+            
+            // Claim the slot only if it is still available
+            if (appointmentRepository.bookIfAvailable(appointmentId, patient, symptoms) == 0) {
+                appointmentMetrics.bookingConflict();
+                // The slot was offered as free, so this instance's index is behind for that day
+                appointmentRepository.findById(appointmentId)
+                        .ifPresent(appointment -> availabilityIndex.evict(appointment.getAppointmentDate()));
+                throw new SlotAlreadyBookedException("Appointment with ID " + appointmentId + " is no longer available");
+            }
+            
+            Appointment bookedAppointment = findAppointmentById(appointmentId);
+            
+            patientServiceImpl.addDoctor(patientId, bookedAppointment.getDoctor().getId());
  
-        return appointmentRepository.save(availableAppointment);
+            availabilityIndex.markBooked(bookedAppointment);
+            return bookedAppointment;
+        });
     }
     /**
      * Find an appointment by its ID.
@@ -144,9 +172,10 @@ public class AppointmentServiceImpl implements AppointmentService {
      * @param appointmentId the ID of the appointment
      * @return the appointment with the given ID
      */
+    @Transactional(readOnly = true)
     @Override
     public Appointment findAppointmentById(Long appointmentId) {
-        return appointmentRepository.findById(appointmentId)
+        return appointmentRepository.findWithDoctorAndPatientById(appointmentId)
                 .orElseThrow(() -> new AppointmentNotFoundException("Appointment not found with ID: " + appointmentId));
     }
     
@@ -157,9 +186,10 @@ public class AppointmentServiceImpl implements AppointmentService {
      * @param status the status of the appointment
      * @return a list of appointments with the given status for the patient
      */
+    @Transactional(readOnly = true)
     @Override
-    public List<Appointment> findByPatientIdAndStatus(Long patientId, String status) {
-        List<Appointment> appointments = appointmentRepository.findByPatientIdAndStatus(patientId, status);
+    public List<PatientAppointmentRow> findByPatientIdAndStatus(Long patientId, AppointmentStatus status) {
+        List<PatientAppointmentRow> appointments = appointmentRepository.findPatientRows(patientId, status);
         if (appointments.isEmpty()) {
             throw new AppointmentNotFoundException("No appointments found for patient ID: " + patientId + " with status: " + status);
         }
@@ -168,52 +198,63 @@ public class AppointmentServiceImpl implements AppointmentService {
 
     /**
      * Cancel an appointment.
+     * The slot is released with a single conditional UPDATE that only matches the patient's booking when it starts
+     * at least four hours from now; the appointment is read afterwards, or to explain why nothing matched.
+     * Medications prescribed for the booking are removed with it.
      *
      * @param appointmentId the ID of the appointment
      * @param patientId     the ID of the patient requesting the cancellation
      * @return the updated appointment
-     * @throws IllegalArgumentException if the appointment cannot be found or if cancellation is not allowed
+     * @throws CannotCancelWithinFourHoursException if the appointment starts within four hours
      */
     @Transactional
     @Override
     public Appointment cancelAppointment(Long appointmentId, Long patientId) {
-        Appointment appointment = appointmentRepository.findByIdAndPatientId(appointmentId, patientId)
-                .orElseThrow(() -> new AppointmentNotFoundException("Appointment not found or does not belong to the patient with ID: " + patientId));
+        return appointmentMetrics.time(AppointmentMetrics.CANCEL, () -> cancel(appointmentId, patientId));
+    }
 
-        LocalDateTime appointmentDateTime = LocalDateTime.of(appointment.getAppointmentDate(), appointment.getStartTime());
-        LocalDateTime now = LocalDateTime.now();
+    private Appointment cancel(Long appointmentId, Long patientId) {
+        LocalDateTime earliest = LocalDateTime.now().plusHours(4);
 
-        if (appointmentDateTime.isBefore(now.plusHours(4))) {
+        if (appointmentRepository.cancelIfBookedFrom(appointmentId, patientId, earliest.toLocalDate(), earliest.toLocalTime()) == 0) {
+            Appointment appointment = appointmentRepository.findByIdAndPatientId(appointmentId, patientId)
+                    .orElseThrow(() -> new AppointmentNotFoundException("Appointment not found or does not belong to the patient with ID: " + patientId));
+            if (appointment.getStatus() != AppointmentStatus.BOOKED) {
+                throw new InvalidStatusTransitionException("Appointment with ID " + appointmentId + " is "
+                        + appointment.getStatus() + " and cannot be cancelled");
+            }
             throw new CannotCancelWithinFourHoursException("Cannot cancel within 4 hours of the appointment.");
         }
-         
-       
-        appointment.setStatus("AVAILABLE");
-        appointment.setAvailable(true);
-        appointment.setPatient(null);
-        appointment.setSymptoms(null);
-        appointment.getMedications().clear();
-        
+        medicationRepository.deleteByAppointmentId(appointmentId);
 
-        return appointmentRepository.save(appointment);
+        Appointment cancelledAppointment = findAppointmentById(appointmentId);
+        availabilityIndex.markFree(cancelledAppointment);
+        return cancelledAppointment;
     }
 
   
     /**
      * Update the status of an appointment.
+     * Only states a doctor may set on their own are accepted, and the change is a single conditional UPDATE
+     * from the state's allowed previous states.
      *
      * @param appointmentId the ID of the appointment
      * @param status the new status to be updated
      * @return the updated appointment
+     * @throws InvalidStatusTransitionException if the appointment cannot move to the status from its current one
      */
     @Transactional
     @Override
-    public Appointment updateAppointmentStatus(Long appointmentId, String status) {
-        Appointment appointment = appointmentRepository.findById(appointmentId)
-                .orElseThrow(() -> new AppointmentNotFoundException("Appointment not found with ID: " + appointmentId));
-
-        appointment.setStatus(status);
-        return appointmentRepository.save(appointment);
+    public Appointment updateAppointmentStatus(Long appointmentId, AppointmentStatus status) {
+        if (!status.isSetByDoctor()) {
+            throw new InvalidStatusTransitionException("Appointments cannot be set to " + status + " directly");
+        }
+        if (appointmentRepository.transition(appointmentId, status.previous(), status) == 0) {
+            Appointment appointment = findAppointmentById(appointmentId);
+            throw new InvalidStatusTransitionException("Appointment with ID " + appointmentId + " is "
+                    + appointment.getStatus() + " and cannot become " + status);
+        }
+        return findAppointmentById(appointmentId);
     }
     /**
      * View appointments for a doctor on a specific date.
@@ -222,31 +263,94 @@ public class AppointmentServiceImpl implements AppointmentService {
      * @param date the date for which to view appointments
      * @return a list of appointments for the doctor on the specified date
      */
+    @Transactional(readOnly = true)
     @Override
-    public List<Appointment> viewAppointments(Long doctorId, LocalDate date) {
-        List<Appointment> appointments = appointmentRepository.findByDoctorIdAndAppointmentDate(doctorId, date);
+    public List<DoctorAppointmentRow> viewAppointments(Long doctorId, LocalDate date) {
+        List<DoctorAppointmentRow> appointments = appointmentRepository.findScheduleRows(doctorId, date);
         if (appointments.isEmpty()) {
             throw new AppointmentNotFoundException("No appointments found for doctor ID: " + doctorId + " on " + date);
         }
         return appointments;
     }
     
+    /**
+     * View a doctor's slots over a date range, grouped by day, with one range query.
+     *
+     * @param doctorId the ID of the doctor
+     * @param from the first day (inclusive)
+     * @param to the last day (inclusive)
+     * @return one entry per day of the range, including days without slots
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<CalendarDay> viewCalendar(Long doctorId, LocalDate from, LocalDate to) {
+        return CalendarDay.byDay(from, to, appointmentRepository.findCalendarRows(doctorId, from, to));
+    }
+
+    /**
+     * Find a doctor's free slots over a date range, grouped by day, with one range query.
+     * Only today and later days are queried.
+     *
+     * @param doctorId the ID of the doctor
+     * @param from the first day (inclusive)
+     * @param to the last day (inclusive)
+     * @return one entry per day of the range, including days without free slots
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<CalendarDay> findAvailableCalendar(Long doctorId, LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        LocalDate first = from.isBefore(today) ? today : from;
+        List<CalendarSlot> slots = first.isAfter(to)
+                ? List.of()
+                : appointmentRepository.findFreeCalendarRows(doctorId, first, to);
+        return CalendarDay.byDay(from, to, slots);
+    }
+
+    /**
+     * Find the earliest free slots across all doctors of a specialization, answered in one pass over
+     * the in-memory availability index (see {@link AvailabilityIndex#earliestFree}).
+     * Unknown specializations are rejected, and one indexed query finds the first date with a free slot in
+     * the window, so a search without matches loads no day into the index and the walk skips the empty days.
+     * Not transactional: the two queries run on their own and the index lookup needs no connection once loaded.
+     *
+     * @param specialization the specialization to match, ignoring case
+     * @param earliest the earliest start time of day, or null for no lower bound
+     * @param latest the latest end time of day, or null for no upper bound
+     * @param limit the maximum number of slots to return, capped at {@value #MAX_NEXT_AVAILABLE}
+     * @return the earliest free slots, earliest first
+     * @throws NoAvailableDoctorsException if no doctor has the specialization
+     * @throws NoAvailableAppointmentsException if no doctor of the specialization has a free slot in the window
+     */
+    @Override
+    public List<NextAvailableSlot> findNextAvailable(String specialization, LocalTime earliest, LocalTime latest, int limit) {
+        return appointmentMetrics.time(AppointmentMetrics.NEXT_AVAILABLE, () -> {
+            String known = doctorRepository.findSpecializations().stream()
+                    .filter(name -> name.equalsIgnoreCase(specialization))
+                    .findFirst()
+                    .orElseThrow(() -> new NoAvailableDoctorsException("No doctors with specialization " + specialization));
+
+            LocalDate firstFree = appointmentRepository.findFirstFreeDate(known, LocalDate.now(), earliest, latest);
+            if (firstFree == null || !availabilityIndex.covers(firstFree)) {
+                throw new NoAvailableAppointmentsException("No available appointments for " + known);
+            }
+
+            appointmentMetrics.availabilityLookup(true);
+            List<NextAvailableSlot> slots = availabilityIndex.earliestFree(known, firstFree, earliest, latest,
+                    Math.max(1, Math.min(limit, MAX_NEXT_AVAILABLE)));
+            if (slots.isEmpty()) {
+                throw new NoAvailableAppointmentsException("No available appointments for " + known);
+            }
+            return slots;
+        });
+    }
+
     @Override
     public Appointment save(Appointment appointment){
     	
     	return appointmentRepository.save(appointment);
     }
     
-    @Override
-    public Appointment addMeds(Long appointmentId, Medication medication) {
-      	 Appointment appointment = appointmentRepository.findById(appointmentId)	
-      	          .orElseThrow(() -> new AppointmentNotFoundException("Appointment not found"));
-      	 
-        
-      		appointment.addMedication(medication);
-      		return save(appointment);
-   
-      }
     
    
 }
@@ -0,0 +1,412 @@
+package org.user.app.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.user.app.dto.AvailableSlot;
+import org.user.app.dto.DoctorAvailability;
+import org.user.app.dto.FreeSlotRow;
+import org.user.app.dto.NextAvailableSlot;
+import org.user.app.entity.Appointment;
+import org.user.app.entity.Doctor;
+import org.user.app.repository.FreeSlotReader;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory index of free appointment slots, keyed by date and doctor.
+ * Each doctor-day is a bitset with one bit per slot of the {@link SlotGenerator} grid
+ * (bit set = slot free) plus the appointment IDs of those slots.
+ * A date is loaded from the primary database with one query ({@link FreeSlotReader}) the first time it is read,
+ * and afterwards kept current by booking, cancellation and slot generation. The query runs outside the map,
+ * so a slow load holds up only the readers of that date; changes committed meanwhile are applied once it finishes.
+ * Every instance keeps its own index and only sees its own changes, so a loaded date is read again once it is
+ * older than {@code slots.index.reload-seconds}; bookings and cancellations made on other instances show up
+ * within that time. A booking conflict drops the date at once, since it shows the index was behind.
+ * Only dates between today and the slot horizon are indexed.
+ */
+@Component
+public class AvailabilityIndex {
+
+    @Autowired
+    private FreeSlotReader freeSlotReader;
+
+    @Value("${slots.horizon.days:60}")
+    private int horizonDays;
+
+    @Value("${slots.index.reload-seconds:30}")
+    private long reloadSeconds;
+
+    // date -> doctorId -> slots of that doctor-day, completed once the date is loaded; writes for a date
+    // run after its load completes, synchronized on the date's doctor map
+    private final Map<LocalDate, Day> days = new ConcurrentHashMap<>();
+
+    private final Map<Long, DoctorSummary> doctors = new ConcurrentHashMap<>();
+
+    /**
+     * Whether the index answers queries for the given date.
+     *
+     * @param date the date to check
+     * @return true if the date lies between today and the slot horizon
+     */
+    public boolean covers(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        return !date.isBefore(today) && !date.isAfter(today.plusDays(horizonDays));
+    }
+
+    /**
+     * Find all doctors with at least one free slot on a date.
+     *
+     * @param date the date to look up
+     * @return doctors with their free-slot count, ordered by last and first name
+     */
+    public List<DoctorAvailability> doctorsFreeOn(LocalDate date) {
+        List<DoctorAvailability> result = new ArrayList<>();
+        for (Map.Entry<Long, DaySlots> entry : day(date).entrySet()) {
+            int free = Integer.bitCount(entry.getValue().freeBits);
+            DoctorSummary doctor = doctors.get(entry.getKey());
+            if (free > 0 && doctor != null) {
+                result.add(new DoctorAvailability(doctor.id, doctor.firstName, doctor.lastName, doctor.specialization, free));
+            }
+        }
+        result.sort(Comparator.comparing(DoctorAvailability::getLastName, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(DoctorAvailability::getFirstName, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return result;
+    }
+
+    /**
+     * Find the free slots of a doctor on a date.
+     *
+     * @param doctorId the ID of the doctor
+     * @param date the date to look up
+     * @return the free slots in start-time order
+     */
+    public List<AvailableSlot> freeSlots(Long doctorId, LocalDate date) {
+        List<AvailableSlot> result = new ArrayList<>();
+        DaySlots slots = day(date).get(doctorId);
+        if (slots == null) {
+            return result;
+        }
+
+        int bits = slots.freeBits;
+        while (bits != 0) {
+            int position = Integer.numberOfTrailingZeros(bits);
+            LocalTime start = SlotGenerator.DAY_START.plusMinutes((long) position * SlotGenerator.SLOT_MINUTES);
+            result.add(new AvailableSlot(slots.slotIds[position], date, start, start.plusMinutes(SlotGenerator.SLOT_MINUTES)));
+            bits &= bits - 1;
+        }
+        return result;
+    }
+
+    /**
+     * Find the earliest free slots across all doctors of a specialization, from a day on (never before now)
+     * up to the slot horizon.
+     * Days are walked in order; on each day every matching doctor contributes a cursor at its next free slot,
+     * and a priority queue merges the cursors in start-time order, so only the returned slots are visited.
+     * The search stops as soon as enough slots are found.
+     *
+     * @param specialization the specialization to match, ignoring case
+     * @param from the first day to search; earlier days are never searched
+     * @param earliest the earliest start time of day, or null for no lower bound
+     * @param latest the latest end time of day, or null for no upper bound
+     * @param limit the maximum number of slots to return
+     * @return up to {@code limit} free slots, earliest first, ties ordered by doctor ID
+     */
+    public List<NextAvailableSlot> earliestFree(String specialization, LocalDate from, LocalTime earliest, LocalTime latest, int limit) {
+        List<NextAvailableSlot> result = new ArrayList<>();
+        int window = slotsWithin(earliest, latest);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        LocalDate last = today.plusDays(horizonDays);
+
+        LocalDate first = from.isBefore(today) ? today : from;
+        for (LocalDate date = first; window != 0 && result.size() < limit && !date.isAfter(last); date = date.plusDays(1)) {
+            // Slots of today that have already started are not offered
+            int mask = date.equals(today) ? window & slotsWithin(now.toLocalTime(), null) : window;
+            PriorityQueue<Cursor> queue = new PriorityQueue<>();
+            for (Map.Entry<Long, DaySlots> entry : day(date).entrySet()) {
+                DoctorSummary doctor = doctors.get(entry.getKey());
+                int bits = entry.getValue().freeBits & mask;
+                if (bits != 0 && doctor != null && specialization.equalsIgnoreCase(doctor.specialization)) {
+                    queue.add(new Cursor(doctor, entry.getValue(), bits));
+                }
+            }
+
+            while (result.size() < limit && !queue.isEmpty()) {
+                Cursor cursor = queue.poll();
+                int position = cursor.position();
+                LocalTime start = SlotGenerator.DAY_START.plusMinutes((long) position * SlotGenerator.SLOT_MINUTES);
+                result.add(new NextAvailableSlot(cursor.slots.slotIds[position], date, start,
+                        start.plusMinutes(SlotGenerator.SLOT_MINUTES), cursor.doctor.id, cursor.doctor.firstName,
+                        cursor.doctor.lastName, cursor.doctor.specialization));
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Record that an appointment slot has been booked, once the current transaction commits.
+     *
+     * @param appointment the booked appointment
+     */
+    public void markBooked(Appointment appointment) {
+        Long doctorId = appointment.getDoctor().getId();
+        afterCommit(() -> update(doctorId, appointment.getAppointmentDate(), appointment.getStartTime(), appointment.getId(), false));
+    }
+
+    /**
+     * Record that an appointment slot is free again, once the current transaction commits.
+     *
+     * @param appointment the released appointment
+     */
+    public void markFree(Appointment appointment) {
+        DoctorSummary doctor = summary(appointment.getDoctor());
+        afterCommit(() -> {
+            doctors.putIfAbsent(doctor.id, doctor);
+            update(doctor.id, appointment.getAppointmentDate(), appointment.getStartTime(), appointment.getId(), true);
+        });
+    }
+
+    /**
+     * Add newly generated slots to the already loaded dates, once the current transaction commits.
+     *
+     * @param generatedFor the doctors the slots were generated for
+     * @param slots the persisted slots
+     */
+    public void slotsCreated(List<Doctor> generatedFor, List<Appointment> slots) {
+        List<DoctorSummary> summaries = generatedFor.stream().map(AvailabilityIndex::summary).toList();
+        List<Appointment> created = List.copyOf(slots);
+        afterCommit(() -> {
+            summaries.forEach(doctor -> doctors.put(doctor.id, doctor));
+            created.forEach(slot -> update(slot.getDoctor().getId(), slot.getAppointmentDate(),
+                    slot.getStartTime(), slot.getId(), slot.isAvailable()));
+        });
+    }
+
+    /**
+     * Drop all dates before the given day.
+     *
+     * @param date the first date to keep
+     */
+    public void evictBefore(LocalDate date) {
+        days.keySet().removeIf(day -> day.isBefore(date));
+    }
+
+    /**
+     * Drop a date right away, so its next read loads it from the database.
+     * Used when a booking finds a slot taken that the index still showed as free.
+     *
+     * @param date the date to drop
+     */
+    public void evict(LocalDate date) {
+        days.remove(date);
+    }
+
+    /**
+     * Refresh an edited doctor once the current transaction commits: the doctor's details are replaced and
+     * the dates holding the doctor's slots are dropped, to be reloaded on their next read. Other dates stay
+     * loaded. Acting before the commit would let a concurrent read reload the old details and keep them.
+     *
+     * @param doctor the doctor as saved
+     */
+    public void invalidateDoctor(Doctor doctor) {
+        DoctorSummary summary = summary(doctor);
+        afterCommit(() -> {
+            doctors.put(summary.id, summary);
+            days.entrySet().removeIf(entry -> !entry.getValue().slots.isDone()
+                    || entry.getValue().slots.join().containsKey(summary.id));
+        });
+    }
+
+    /**
+     * Remove a deleted doctor and the doctor's slots once the current transaction commits.
+     * Other doctors' slots stay loaded.
+     *
+     * @param doctorId the ID of the deleted doctor
+     */
+    public void invalidateDoctor(Long doctorId) {
+        afterCommit(() -> {
+            doctors.remove(doctorId);
+            // A date still loading may have read the doctor before the delete, so remove it once loaded
+            days.values().forEach(day -> day.slots.thenAccept(doctorSlots -> {
+                synchronized (doctorSlots) {
+                    doctorSlots.remove(doctorId);
+                }
+            }));
+        });
+    }
+
+    private Map<Long, DaySlots> day(LocalDate date) {
+        long now = System.nanoTime();
+        Day day = days.get(date);
+        if (day != null && day.slots.isDone() && now - day.loadedAt > TimeUnit.SECONDS.toNanos(reloadSeconds)) {
+            // Too old to trust: changes made on other instances may be missing, so load it again
+            days.remove(date, day);
+            day = null;
+        }
+        if (day == null) {
+            Day loading = new Day(new CompletableFuture<>(), now);
+            day = days.putIfAbsent(date, loading);
+            if (day == null) {
+                // This caller loads the date; others reading it wait for the same result
+                try {
+                    loading.slots.complete(load(date));
+                } catch (RuntimeException e) {
+                    days.remove(date, loading);
+                    loading.slots.completeExceptionally(e);
+                    throw e;
+                }
+                day = loading;
+            }
+        }
+        try {
+            return day.slots.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private Map<Long, DaySlots> load(LocalDate date) {
+        Map<Long, DaySlots> doctorSlots = new ConcurrentHashMap<>();
+        for (FreeSlotRow row : freeSlotReader.findFreeSlotsOnDate(date)) {
+            // Replaced on every load, so details edited on another instance are picked up too
+            doctors.put(row.getDoctorId(),
+                    new DoctorSummary(row.getDoctorId(), row.getFirstName(), row.getLastName(), row.getSpecialization()));
+            int position = position(row.getStartTime());
+            if (position >= 0) {
+                doctorSlots.computeIfAbsent(row.getDoctorId(), id -> new DaySlots()).set(position, row.getId(), true);
+            }
+        }
+        return doctorSlots;
+    }
+
+    private void update(Long doctorId, LocalDate date, LocalTime startTime, Long appointmentId, boolean free) {
+        int position = position(startTime);
+        if (position < 0) {
+            return;
+        }
+        // Dates that are not loaded yet will read the committed state from the database. A date still loading
+        // may have read the state before this change, so the change is applied when the load finishes
+        Day day = days.get(date);
+        if (day != null) {
+            day.slots.thenAccept(doctorSlots -> {
+                synchronized (doctorSlots) {
+                    doctorSlots.computeIfAbsent(doctorId, id -> new DaySlots()).set(position, appointmentId, free);
+                }
+            });
+        }
+    }
+
+    private static DoctorSummary summary(Doctor doctor) {
+        return new DoctorSummary(doctor.getId(), doctor.getFirstName(), doctor.getLastName(), doctor.getSpecialization());
+    }
+
+    private static int position(LocalTime startTime) {
+        long minutes = Duration.between(SlotGenerator.DAY_START, startTime).toMinutes();
+        if (minutes < 0 || minutes % SlotGenerator.SLOT_MINUTES != 0 || minutes / SlotGenerator.SLOT_MINUTES >= SlotGenerator.SLOTS_PER_DAY) {
+            return -1;
+        }
+        return (int) (minutes / SlotGenerator.SLOT_MINUTES);
+    }
+
+    // Bitset of the grid slots that start no earlier than earliest and end no later than latest
+    private static int slotsWithin(LocalTime earliest, LocalTime latest) {
+        int bits = 0;
+        for (int position = 0; position < SlotGenerator.SLOTS_PER_DAY; position++) {
+            LocalTime start = SlotGenerator.DAY_START.plusMinutes((long) position * SlotGenerator.SLOT_MINUTES);
+            if ((earliest == null || !start.isBefore(earliest))
+                    && (latest == null || !start.plusMinutes(SlotGenerator.SLOT_MINUTES).isAfter(latest))) {
+                bits |= 1 << position;
+            }
+        }
+        return bits;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Slots of one doctor on one day. Written only while holding the lock on the date's doctor map,
+     * read without locking: the slot ID is stored before the volatile bitset is published.
+     */
+    private static final class DaySlots {
+
+        private final long[] slotIds = new long[SlotGenerator.SLOTS_PER_DAY];
+
+        private volatile int freeBits;
+
+        void set(int position, Long appointmentId, boolean free) {
+            if (appointmentId != null) {
+                slotIds[position] = appointmentId;
+            }
+            freeBits = free ? freeBits | (1 << position) : freeBits & ~(1 << position);
+        }
+    }
+
+    /**
+     * A doctor's next free slot on one day; advancing moves it to the doctor's following free slot.
+     */
+    private static final class Cursor implements Comparable<Cursor> {
+
+        private final DoctorSummary doctor;
+
+        private final DaySlots slots;
+
+        private int bits;  // Remaining free slots, read once from the doctor-day
+
+        Cursor(DoctorSummary doctor, DaySlots slots, int bits) {
+            this.doctor = doctor;
+            this.slots = slots;
+            this.bits = bits;
+        }
+
+        int position() {
+            return Integer.numberOfTrailingZeros(bits);
+        }
+
+        boolean advance() {
+            bits &= bits - 1;
+            return bits != 0;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            int byTime = Integer.compare(position(), other.position());
+            return byTime != 0 ? byTime : doctor.id.compareTo(other.doctor.id);
+        }
+    }
+
+    // One loaded (or loading) date and when its query started
+    private record Day(CompletableFuture<Map<Long, DaySlots>> slots, long loadedAt) {
+    }
+
+    private record DoctorSummary(Long id, String firstName, String lastName, String specialization) {
+    }
+}
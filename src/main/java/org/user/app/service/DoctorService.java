@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import org.user.app.dto.ListPage;
 import org.user.app.entity.Doctor;
 import org.user.app.entity.Patient;
 
@@ -29,9 +30,9 @@ public interface DoctorService {
     /**
      * Find all patients associated with a specific doctor.
      *
-     * @param doctor the doctor whose patients are to be retrieved.
+     * @param doctorId the ID of the doctor whose patients are to be retrieved.
      */
-    Set<Patient> findPatients(Doctor doctor);
+    Set<Patient> findPatients(Long doctorId);
     
     /**
      * Retrieve a doctor entity by its unique ID.
@@ -52,6 +53,23 @@ public interface DoctorService {
      */
     List<Doctor> getAllDoctors();
     
+    /**
+     * Retrieve the distinct specializations of all doctors, in alphabetical order.
+     */
+    List<String> getSpecializations();
+    
+    /**
+     * Retrieve one page of doctors using keyset pagination.
+     *
+     * @param sort the field to sort by; unknown fields sort by ID
+     * @param direction "asc" or "desc"
+     * @param size the maximum number of doctors on the page
+     * @param after cursor of the page to continue after, or null
+     * @param before cursor of the page to go back from, or null
+     * @return the page of doctors with cursors to its neighbouring pages
+     */
+    ListPage<Doctor> getDoctorsPage(String sort, String direction, Integer size, String after, String before);
+    
 
     /**
      * Update the details of an existing doctor.
@@ -1,9 +1,13 @@
 package org.user.app.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.user.app.config.CredentialLookup;
+import org.user.app.dto.ListPage;
 import org.user.app.entity.Doctor;
 import org.user.app.entity.Patient;
 import org.user.app.exceptions.DoctorNotFoundException;
@@ -11,7 +15,6 @@ import org.user.app.repository.DoctorRepository;
 
 
 import java.time.LocalDate;
-import java.time.temporal.TemporalAdjusters;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -21,6 +24,8 @@ import java.util.Set;
 @Service
 public class DoctorServiceImpl implements DoctorService {
 
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "firstName", "email", "specialization");
+
     @Autowired
     private DoctorRepository doctorRepository;
     
@@ -30,9 +35,19 @@ public class DoctorServiceImpl implements DoctorService {
     
     @Autowired
     private AppointmentServiceImpl appointmentServiceImpl;
+    
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+    
+    @Autowired
+    private CredentialLookup credentialLookup;
+    
+    @Value("${slots.horizon.days:60}")
+    private int horizonDays;
 
     /**
-     * Register a new doctor and create half-hour appointment slots for the rest of the current month.
+     * Register a new doctor and create half-hour appointment slots up to the rolling slot horizon.
+     * The SlotHorizonScheduler keeps extending the window afterwards.
      *
      * @param doctor the doctor entity to be registered.
      * @return the registered doctor entity.
@@ -48,10 +63,10 @@ public class DoctorServiceImpl implements DoctorService {
 
         
         LocalDate today = LocalDate.now();
-        LocalDate endOfMonth = today.with(TemporalAdjusters.lastDayOfMonth());
+        LocalDate horizonEnd = today.plusDays(horizonDays);
 
         
-        appointmentServiceImpl.createHalfHourAppointmentsForDoctor(savedDoctor, today, endOfMonth);
+        appointmentServiceImpl.createHalfHourAppointmentsForDoctor(savedDoctor, today, horizonEnd);
 
         return savedDoctor;
     }
@@ -62,6 +77,7 @@ public class DoctorServiceImpl implements DoctorService {
      * @param email the email address of the doctor to be retrieved.
      * @return the doctor entity associated with the given email address.
      */
+    @Transactional(readOnly = true)
     @Override
     public Doctor getDoctorByEmail(String email) {
         return doctorRepository.findByEmail(email);
@@ -70,12 +86,15 @@ public class DoctorServiceImpl implements DoctorService {
     /**
      * Find all patients associated with a specific doctor.
      *
-     * @param doctor the doctor whose patients are to be retrieved.
+     * @param doctorId the ID of the doctor whose patients are to be retrieved.
      * @return a list of patients associated with the specified doctor.
      */
+    @Transactional(readOnly = true)
     @Override
-    public Set<Patient> findPatients(Doctor doctor) {
-        return doctor.getPatients();
+    public Set<Patient> findPatients(Long doctorId) {
+        return doctorRepository.findWithPatientsById(doctorId)
+                .map(Doctor::getPatients)
+                .orElseThrow(() -> new DoctorNotFoundException("Doctor not found with ID: " + doctorId));
     }
 
     /**
@@ -84,6 +103,7 @@ public class DoctorServiceImpl implements DoctorService {
      * @param Id the unique ID of the doctor to be retrieved.
      * @return an Optional containing the doctor entity if found.
      */
+    @Transactional(readOnly = true)
     @Override
     public Optional<Doctor> getDoctorById(Long Id) {
         return doctorRepository.findById(Id);
@@ -94,9 +114,12 @@ public class DoctorServiceImpl implements DoctorService {
      *
      * @param id the unique ID of the doctor to be deleted. 
      */
+    @Transactional
     @Override
     public void deleteDoctor(Long id) {
+        doctorRepository.findById(id).ifPresent(doctor -> credentialLookup.evict(doctor.getEmail()));
         doctorRepository.deleteById(id);
+        availabilityIndex.invalidateDoctor(id);
     }
 
     /**
@@ -104,11 +127,41 @@ public class DoctorServiceImpl implements DoctorService {
      *
      * @return a list of all doctors in the database.
      */
+    @Transactional(readOnly = true)
     @Override
     public List<Doctor> getAllDoctors() {
         return doctorRepository.findAll();
     }
 
+    /**
+     * Retrieve the distinct specializations of all doctors.
+     *
+     * @return the specializations in alphabetical order
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<String> getSpecializations() {
+        return doctorRepository.findSpecializations();
+    }
+
+    /**
+     * Retrieve one page of doctors using keyset pagination.
+     * Only non-null columns are sortable, since rows with a null sort key cannot be seeked past.
+     *
+     * @param sort the field to sort by; unknown fields sort by ID
+     * @param direction "asc" or "desc"
+     * @param size the maximum number of doctors on the page
+     * @param after cursor of the page to continue after, or null
+     * @param before cursor of the page to go back from, or null
+     * @return the page of doctors with cursors to its neighbouring pages
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public ListPage<Doctor> getDoctorsPage(String sort, String direction, Integer size, String after, String before) {
+        KeysetPaging.Request request = KeysetPaging.Request.of(SORTABLE_FIELDS, sort, direction, size, after, before);
+        return request.page(doctorRepository.findBy(request.position(), request.sort(), Limit.of(request.pageSize())));
+    }
+
     /**
      * Update the details of an existing doctor.
      *
@@ -117,16 +170,22 @@ public class DoctorServiceImpl implements DoctorService {
      * @return the updated doctor entity with the new details applied.
      * @throws DoctorNotFoundException if no doctor with the given ID is found in the database.
      */
+    @Transactional
     @Override
     public Doctor updateDoctor(Long id, Doctor updatedDoctor) {
-        if (!doctorRepository.existsById(id)) {
-            throw new DoctorNotFoundException("Doctor not found with ID: " + id);
-        }
+        Doctor existingDoctor = doctorRepository.findById(id)
+                .orElseThrow(() -> new DoctorNotFoundException("Doctor not found with ID: " + id));
+        
+        // Old and new email may both be cached; neither may keep the old password
+        credentialLookup.evict(existingDoctor.getEmail());
+        credentialLookup.evict(updatedDoctor.getEmail());
         
         String encryptedPassword = passwordEncoder.encode(updatedDoctor.getPassword());
         updatedDoctor.setPassword(encryptedPassword);
         
-        return doctorRepository.save(updatedDoctor);
+        Doctor savedDoctor = doctorRepository.save(updatedDoctor);
+        availabilityIndex.invalidateDoctor(savedDoctor);
+        return savedDoctor;
     }
     
 }
\ No newline at end of file
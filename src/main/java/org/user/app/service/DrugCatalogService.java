@@ -0,0 +1,43 @@
+package org.user.app.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.core.io.Resource;
+import org.user.app.dto.DrugSuggestion;
+
+public interface DrugCatalogService {
+
+    /**
+     * Find catalog entries for name autocomplete.
+     *
+     * @param prefix the start of the drug name, or of one of its words
+     * @param limit the maximum number of entries to return
+     * @return matching entries in name order
+     */
+    List<DrugSuggestion> suggest(String prefix, int limit);
+
+    /**
+     * Find the catalog entry with exactly the given name, ignoring case.
+     *
+     * @param name the drug name
+     * @return the ID of the catalog entry, if there is one
+     */
+    Optional<Long> findId(String name);
+
+    /**
+     * Add the drugs listed in a text file to the catalog, one name per line.
+     * Blank lines, lines starting with {@code #} and names already in the catalog are skipped.
+     *
+     * @param resource the file to read
+     * @return the number of entries added
+     * @throws IOException if the file cannot be read
+     */
+    int importCatalog(Resource resource) throws IOException;
+
+    /**
+     * Rebuild the in-memory name index from the database.
+     */
+    void reload();
+}
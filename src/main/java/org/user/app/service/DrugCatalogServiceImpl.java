@@ -0,0 +1,118 @@
+package org.user.app.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.user.app.dto.DrugSuggestion;
+import org.user.app.entity.Drug;
+import org.user.app.repository.DrugRepository;
+import org.user.app.repository.MedicationRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Medication catalog. Lookups are answered from a {@link DrugNameIndex} held in memory, built from the database
+ * on first use and replaced as a whole after every import, so autocomplete never queries the database.
+ */
+@Service
+public class DrugCatalogServiceImpl implements DrugCatalogService {
+
+    @Autowired
+    private DrugRepository drugRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${medication.catalog.import-batch-size:1000}")
+    private int importBatchSize;
+
+    private volatile DrugNameIndex index;
+
+    @Override
+    public List<DrugSuggestion> suggest(String prefix, int limit) {
+        return index().suggest(prefix, limit);
+    }
+
+    @Override
+    public Optional<Long> findId(String name) {
+        return index().findId(name);
+    }
+
+    /**
+     * Add the drugs listed in a text file to the catalog, one name per line.
+     * New names are inserted in batches, one transaction per batch. If any were added, free-text medications
+     * naming one of them are pointed at it; the index is rebuilt either way.
+     *
+     * @param resource the file to read
+     * @return the number of entries added
+     */
+    @Override
+    public int importCatalog(Resource resource) throws IOException {
+        // Names are unique regardless of case, as in the database
+        Set<String> known = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        known.addAll(drugRepository.findAllNames());
+
+        List<Drug> batch = new ArrayList<>(importBatchSize);
+        int added = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String name = line.strip();
+                if (name.isEmpty() || name.startsWith("#") || !known.add(name)) {
+                    continue;
+                }
+                batch.add(new Drug(null, name));
+                if (batch.size() == importBatchSize) {
+                    added += save(batch);
+                    batch = new ArrayList<>(importBatchSize);
+                }
+            }
+        }
+        added += save(batch);
+        // Nothing new to link to when every name was already in the catalog, so a restart skips the update
+        if (added > 0) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> medicationRepository.linkToCatalog());
+        }
+        reload();
+        return added;
+    }
+
+    private int save(List<Drug> batch) {
+        if (!batch.isEmpty()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> drugRepository.saveAll(batch));
+        }
+        return batch.size();
+    }
+
+    @Override
+    public synchronized void reload() {
+        index = new DrugNameIndex(drugRepository.findSuggestions());
+    }
+
+    private DrugNameIndex index() {
+        DrugNameIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                if (index == null) {
+                    reload();
+                }
+                current = index;
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,160 @@
+package org.user.app.service;
+
+import org.user.app.dto.DrugSuggestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Immutable prefix tree over the names of the medication catalog, for autocomplete.
+ * Every name is indexed from its first character and from the start of each following word,
+ * so "amox" and "500" both find "Amoxicillin 500 mg capsule". Matching ignores case.
+ * Each node keeps the first {@link #MAX_SUGGESTIONS} entries below it in name order,
+ * so a lookup costs one step per character of the prefix, whatever the size of the catalog.
+ */
+public final class DrugNameIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;  // Most entries returned for one prefix
+
+    private final long[] ids;  // Entry IDs, in name order
+    private final String[] names;  // Entry names, in name order
+    private final Node root = new Node();
+
+    public DrugNameIndex(List<DrugSuggestion> entries) {
+        List<DrugSuggestion> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing(DrugSuggestion::getName, String.CASE_INSENSITIVE_ORDER));
+        ids = new long[sorted.size()];
+        names = new String[sorted.size()];
+        for (int entry = 0; entry < sorted.size(); entry++) {
+            ids[entry] = sorted.get(entry).getId();
+            names[entry] = sorted.get(entry).getName();
+            String key = normalize(names[entry]);
+            for (int start = 0; start < key.length(); start++) {
+                if (start == 0 || isWordStart(key, start)) {
+                    insert(key, start, entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of entries in the index.
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Entries whose name, or one of whose words, starts with the given prefix.
+     *
+     * @param prefix the text typed so far
+     * @param limit the maximum number of entries, at most {@link #MAX_SUGGESTIONS}
+     * @return matching entries in name order; empty for a blank prefix
+     */
+    public List<DrugSuggestion> suggest(String prefix, int limit) {
+        Node node = find(prefix == null ? "" : normalize(prefix));
+        if (node == null || node == root) {
+            return List.of();
+        }
+        int count = Math.min(Math.min(limit, MAX_SUGGESTIONS), node.topCount);
+        List<DrugSuggestion> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int entry = node.top[i];
+            result.add(new DrugSuggestion(ids[entry], names[entry]));
+        }
+        return result;
+    }
+
+    /**
+     * The ID of the entry with exactly the given name, ignoring case and surrounding whitespace.
+     *
+     * @param name the drug name
+     * @return the entry ID, or empty if the name is not in the catalog
+     */
+    public Optional<Long> findId(String name) {
+        Node node = name == null ? null : find(normalize(name));
+        if (node == null || node.exact < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(ids[node.exact]);
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isWordStart(String key, int index) {
+        return Character.isLetterOrDigit(key.charAt(index)) && !Character.isLetterOrDigit(key.charAt(index - 1));
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        return node;
+    }
+
+    // Entries arrive in name order, so appending keeps every node's list sorted
+    private void insert(String key, int start, int entry) {
+        Node node = root;
+        for (int i = start; i < key.length(); i++) {
+            node = node.childOrAdd(key.charAt(i));
+            node.add(entry);
+        }
+        if (start == 0 && node.exact < 0) {
+            node.exact = entry;
+        }
+    }
+
+    private static final class Node {
+
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] keys = NO_KEYS;  // Child characters, sorted
+        private Node[] children = NO_CHILDREN;
+        private int[] top = new int[1];  // First entries below this node, in name order; most nodes hold one
+        private int topCount;
+        private int exact = -1;  // Entry whose whole name ends here
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrAdd(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            newKeys[at] = c;
+            newChildren[at] = new Node();
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[at];
+        }
+
+        // A name with a repeated word reaches the same node twice
+        void add(int entry) {
+            if (topCount == MAX_SUGGESTIONS || (topCount > 0 && top[topCount - 1] == entry)) {
+                return;
+            }
+            if (topCount == top.length) {
+                top = Arrays.copyOf(top, Math.min(top.length * 2, MAX_SUGGESTIONS));
+            }
+            top[topCount++] = entry;
+        }
+    }
+}
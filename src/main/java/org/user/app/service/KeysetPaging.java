@@ -0,0 +1,106 @@
+package org.user.app.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.user.app.dto.ListPage;
+
+/**
+ * Keyset (seek) pagination for the admin list pages.
+ * A page is read as "the next N rows after the last row seen" in (sort field, id) order,
+ * so every page costs one index range scan no matter how deep the admin has paged.
+ * The position of a page is passed between requests as an opaque URL-safe cursor
+ * holding the ID and sort value of its boundary row.
+ */
+final class KeysetPaging {
+
+    static final String ID = "id";
+    // Name of the identifier attribute as declared on the entities; keyset keys must use it verbatim
+    static final String ID_ATTRIBUTE = "Id";
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    private KeysetPaging() {
+    }
+
+    /**
+     * Settings of one list request, with unknown sort fields falling back to the ID
+     * and the page size clamped to {@code 1..MAX_PAGE_SIZE}.
+     */
+    record Request(String sortField, Sort.Direction direction, int pageSize, KeysetScrollPosition position) {
+
+        static Request of(Set<String> sortableFields, String sort, String direction, Integer size,
+                          String after, String before) {
+            String sortField = sort != null && sortableFields.contains(sort) ? sort : ID;
+            Sort.Direction dir = Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.ASC);
+            int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+            KeysetScrollPosition position = ScrollPosition.keyset();
+            if (before != null && !before.isBlank()) {
+                position = decode(before, sortField, true);
+            } else if (after != null && !after.isBlank()) {
+                position = decode(after, sortField, false);
+            }
+            return new Request(sortField, dir, pageSize, position);
+        }
+
+        /**
+         * The sort to read with; the ID is always the last key so that the order is total.
+         */
+        Sort sort() {
+            Sort byId = Sort.by(direction, ID_ATTRIBUTE);
+            return ID.equals(sortField) ? byId : Sort.by(direction, sortField).and(byId);
+        }
+
+        /**
+         * Turn the rows read for this request into a page with cursors to its neighbours.
+         */
+        <T> ListPage<T> page(Window<T> window) {
+            boolean backward = position.scrollsBackward();
+            boolean started = !position.isInitial();
+            String first = window.isEmpty() ? null : encode(window.positionAt(0), sortField);
+            String last = window.isEmpty() ? null : encode(window.positionAt(window.size() - 1), sortField);
+
+            // Reading backward, "has next" means more rows before this page
+            String next = (backward || window.hasNext()) ? last : null;
+            String previous = (backward ? window.hasNext() : started) ? first : null;
+            return new ListPage<>(window.getContent(), sortField, direction.name().toLowerCase(), pageSize, next, previous);
+        }
+    }
+
+    static String encode(ScrollPosition position, String sortField) {
+        Map<String, ?> keys = ((KeysetScrollPosition) position).getKeys();
+        String value = ID.equals(sortField) ? String.valueOf(keys.get(ID_ATTRIBUTE)) : keys.get(ID_ATTRIBUTE) + ":" + keys.get(sortField);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor; a malformed cursor restarts the list from the first page.
+     */
+    static KeysetScrollPosition decode(String cursor, String sortField, boolean backward) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            if (ID.equals(sortField)) {
+                keys.put(ID_ATTRIBUTE, Long.valueOf(value));
+            } else {
+                int separator = value.indexOf(':');
+                if (separator < 0) {
+                    return ScrollPosition.keyset();
+                }
+                keys.put(sortField, value.substring(separator + 1));
+                keys.put(ID_ATTRIBUTE, Long.valueOf(value.substring(0, separator)));
+            }
+            return backward ? ScrollPosition.backward(keys) : ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException e) {
+            return ScrollPosition.keyset();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 
 
 
+import org.user.app.entity.Appointment;
 import org.user.app.entity.Medication;
 
 public interface MedicationService {
@@ -25,6 +26,23 @@ public interface MedicationService {
      */
     void removeMedication(Long medicationId);
 
+    /**
+     * Add several medications to an appointment in one batched transaction.
+     *
+     * @param appointmentId the ID of the appointment to prescribe for
+     * @param medications the medications to add
+     * @return the saved medications
+     */
+    List<Medication> prescribe(Long appointmentId, List<Medication> medications);
+
+    /**
+     * Retrieve an appointment together with its medications in a single query.
+     *
+     * @param appointmentId the ID of the appointment
+     * @return the appointment with its medications loaded
+     */
+    Appointment getPrescription(Long appointmentId);
+
     /**
      * Retrieve all medications associated with a specific appointment.
      *
@@ -3,13 +3,22 @@ package org.user.app.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.user.app.entity.Appointment;
+import org.user.app.entity.Drug;
 import org.user.app.entity.Medication;
 import org.user.app.exceptions.AppointmentNotFoundException;
 import org.user.app.exceptions.MedicationNotFoundException;
 import org.user.app.repository.AppointmentRepository;
+import org.user.app.repository.DrugRepository;
 import org.user.app.repository.MedicationRepository;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 @Service
@@ -20,6 +29,12 @@ public class MedicationServiceImpl implements MedicationService {
 
     @Autowired
     private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DrugRepository drugRepository;
+
+    @Autowired
+    private DrugCatalogService drugCatalogService;
     
  
     /**
@@ -33,6 +48,7 @@ public class MedicationServiceImpl implements MedicationService {
         if (!medicationRepository.existsById(medication.getId())) {
             throw new MedicationNotFoundException("Medication with ID " + medication.getId() + " not found");
         }
+        linkToCatalog(List.of(medication));
         return medicationRepository.save(medication);
     }
     /**
@@ -49,18 +65,71 @@ public class MedicationServiceImpl implements MedicationService {
         medicationRepository.delete(medication); 
     }
 
+    /**
+     * Add several medications to an appointment at once.
+     * The medications are inserted in a single transaction, as JDBC batches, without loading the appointment
+     * or its existing medications. Names found in the medication catalog are stored as references to it.
+     *
+     * @param appointmentId the ID of the appointment to prescribe for
+     * @param medications the medications to add
+     * @return the saved medications
+     */
+    @Transactional
+    @Override
+    public List<Medication> prescribe(Long appointmentId, List<Medication> medications) {
+        if (!appointmentRepository.existsById(appointmentId)) {
+            throw new AppointmentNotFoundException("Appointment with ID " + appointmentId + " not found");
+        }
+        Appointment appointment = appointmentRepository.getReferenceById(appointmentId);
+        medications.forEach(medication -> medication.setAppointment(appointment));
+        linkToCatalog(medications);
+
+        return medicationRepository.saveAll(medications);
+    }
+
+    // Replace names found in the catalog by a reference to the entry, loading all entries with one query
+    private void linkToCatalog(List<Medication> medications) {
+        Map<Medication, Long> drugIds = new IdentityHashMap<>();
+        for (Medication medication : medications) {
+            drugCatalogService.findId(medication.getName()).ifPresent(drugId -> drugIds.put(medication, drugId));
+        }
+        if (drugIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Drug> drugs = drugRepository.findAllById(new HashSet<>(drugIds.values())).stream()
+                .collect(Collectors.toMap(Drug::getId, Function.identity()));
+        drugIds.forEach((medication, drugId) -> {
+            Drug drug = drugs.get(drugId);
+            if (drug != null) {
+                medication.setDrug(drug);
+                medication.setName(null);
+            }
+        });
+    }
+
+    /**
+     * Retrieve an appointment together with its doctor, patient and medications, in a single query.
+     *
+     * @param appointmentId the ID of the appointment
+     * @return the appointment with its medications loaded
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public Appointment getPrescription(Long appointmentId) {
+        return appointmentRepository.findWithMedicationsById(appointmentId)
+                .orElseThrow(() -> new AppointmentNotFoundException("Appointment with ID " + appointmentId + " not found"));
+    }
+
     /**
      * Retrieve all medications associated with a specific appointment.
      *
      * @param appointmentId the ID of the appointment for which to retrieve medications
      * @return a Set of medications associated with the specified appointment
      */
+    @Transactional(readOnly = true)
     @Override
     public List<Medication> getMedications(Long appointmentId) {
-        appointmentRepository.findById(appointmentId)
-                .orElseThrow(() -> new AppointmentNotFoundException("Appointment with ID " + appointmentId + " not found"));
-
-       return medicationRepository.findByAppointmentId(appointmentId);
+        return new ArrayList<>(getPrescription(appointmentId).getMedications());
     }
 
     /**
@@ -69,8 +138,9 @@ public class MedicationServiceImpl implements MedicationService {
      * @param medicationId the ID of the medication to retrieve
      * @return the optional medication entity
      */
+    @Transactional(readOnly = true)
     public Medication getMedicationById(Long medicationId) {
-        return (medicationRepository.findById(medicationId)
+        return (medicationRepository.findWithAppointmentById(medicationId)
                 .orElseThrow(() -> new MedicationNotFoundException("Medication with ID " + medicationId + " not found"))); 
     }
 
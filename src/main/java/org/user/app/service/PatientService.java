@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import org.user.app.dto.ListPage;
 import org.user.app.entity.Doctor;
 import org.user.app.entity.Patient;
 
@@ -37,6 +38,18 @@ public interface PatientService {
      */
     List<Patient> getAllPatients();
     
+    /**
+     * Retrieve one page of patients using keyset pagination.
+     *
+     * @param sort the field to sort by; unknown fields sort by ID
+     * @param direction "asc" or "desc"
+     * @param size the maximum number of patients on the page
+     * @param after cursor of the page to continue after, or null
+     * @param before cursor of the page to go back from, or null
+     * @return the page of patients with cursors to its neighbouring pages
+     */
+    ListPage<Patient> getPatientsPage(String sort, String direction, Integer size, String after, String before);
+    
     /**
      * Retrieve a patient entity by their email address.
      *
@@ -55,17 +68,17 @@ public interface PatientService {
 	Patient updatePatient(Long id, Patient updatedPatient);
 	
 	/**
-     * Adds a doctor to a patient's list of doctors and registers the updated patient.
+     * Adds a doctor to a patient's list of doctors if not already present.
      *
-     * @param patient the patient to whom the doctor will be added.
-     * @param doctor the doctor to be added to the patient's list of doctors.
+     * @param patientId the ID of the patient to whom the doctor will be added.
+     * @param doctorId the ID of the doctor to be added to the patient's list of doctors.
      */
-	Patient addDoctor(Patient patient, Doctor doctor);
+	void addDoctor(Long patientId, Long doctorId);
 	
 	/**
      * Find all doctors associated with a specific patient.
      *
-     * @param patient the patient whose doctors are to be retrieved.
+     * @param patientId the ID of the patient whose doctors are to be retrieved.
      */
-	Set<Doctor> viewDoctors(Patient patient);
+	Set<Doctor> viewDoctors(Long patientId);
 }
\ No newline at end of file
@@ -6,9 +6,12 @@ import java.util.Optional;
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.user.app.config.CredentialLookup;
+import org.user.app.dto.ListPage;
 import org.user.app.entity.Doctor;
 import org.user.app.entity.Patient;
 import org.user.app.exceptions.PatientNotFoundException;
@@ -18,12 +21,17 @@ import org.user.app.repository.PatientRepository;
 @Service
 public class PatientServiceImpl implements PatientService {
 
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "firstName", "email");
+
     @Autowired
     private PatientRepository patientRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CredentialLookup credentialLookup;
+
     /**
      * Register a new patient by saving the provided patient entity.
      * The patient's password is encrypted before saving.
@@ -45,6 +53,7 @@ public class PatientServiceImpl implements PatientService {
      * @param id the unique ID of the patient to be retrieved
      * @return the patient entity associated with the given id
      */
+    @Transactional(readOnly = true)
     @Override
     public Optional<Patient> getPatientById(Long id) {
         return patientRepository.findById(id);
@@ -55,8 +64,10 @@ public class PatientServiceImpl implements PatientService {
      *
      * @param id the unique ID of the patient to be deleted
      */
+    @Transactional
     @Override
     public void deletePatient(Long id) {
+        patientRepository.findById(id).ifPresent(patient -> credentialLookup.evict(patient.getEmail()));
         patientRepository.deleteById(id);
     }
 
@@ -65,17 +76,37 @@ public class PatientServiceImpl implements PatientService {
      *
      * @return a list of all patients in the database
      */
+    @Transactional(readOnly = true)
     @Override
     public List<Patient> getAllPatients() {
         return patientRepository.findAll();
     }
 
+    /**
+     * Retrieve one page of patients using keyset pagination.
+     * Only non-null columns are sortable, since rows with a null sort key cannot be seeked past.
+     *
+     * @param sort the field to sort by; unknown fields sort by ID
+     * @param direction "asc" or "desc"
+     * @param size the maximum number of patients on the page
+     * @param after cursor of the page to continue after, or null
+     * @param before cursor of the page to go back from, or null
+     * @return the page of patients with cursors to its neighbouring pages
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public ListPage<Patient> getPatientsPage(String sort, String direction, Integer size, String after, String before) {
+        KeysetPaging.Request request = KeysetPaging.Request.of(SORTABLE_FIELDS, sort, direction, size, after, before);
+        return request.page(patientRepository.findBy(request.position(), request.sort(), Limit.of(request.pageSize())));
+    }
+
     /**
      * Retrieve a patient entity by their email address.
      *
      * @param email the email address of the patient to be retrieved
      * @return the patient entity associated with the given email address
      */
+    @Transactional(readOnly = true)
     @Override
     public Patient getPatientByEmail(String email) {
         return patientRepository.findByEmail(email);
@@ -90,12 +121,16 @@ public class PatientServiceImpl implements PatientService {
      * @return the updated patient entity with the new details applied
      * @throws PatientNotFoundException if no patient with the given ID is found in the database
      */
+    @Transactional
     @Override
     public Patient updatePatient(Long id, Patient updatedPatient) {
 
         Patient existingPatient = patientRepository.findById(id)
             .orElseThrow(() -> new PatientNotFoundException("Patient not found with ID: " + id));
         
+        // Old and new email may both be cached; neither may keep the old password
+        credentialLookup.evict(existingPatient.getEmail());
+        credentialLookup.evict(updatedPatient.getEmail());
       
         existingPatient.setFirstName(updatedPatient.getFirstName());
         existingPatient.setLastName(updatedPatient.getLastName());
@@ -112,29 +147,32 @@ public class PatientServiceImpl implements PatientService {
     }
     
     /**
-     * Adds a doctor to a patient's list of doctors and registers the updated patient.
+     * Adds a doctor to a patient's list of doctors if not already present.
+     * Writes the patient_doctor row directly, so neither side's collection is loaded
+     * and the cost does not grow with the number of linked doctors or patients.
      *
-     * @param patient the patient to whom the doctor will be added.
-     * @param doctor the doctor to be added to the patient's list of doctors.
-     * @return the updated patient after the doctor has been added and the patient has been registered.
+     * @param patientId the ID of the patient to whom the doctor will be added.
+     * @param doctorId the ID of the doctor to be added to the patient's list of doctors.
      */
+    @Transactional
     @Override
-    public Patient addDoctor(Patient patient, Doctor doctor) {
-        
-    	patient.addDoctor(doctor);
-    	return patientRepository.save(patient);     
+    public void addDoctor(Long patientId, Long doctorId) {
+    	patientRepository.linkDoctor(patientId, doctorId);
     }
     
     /**
      * Find all doctors associated with a specific patient.
      *
-     * @param patient the patient whose doctors are to be retrieved.
-     * @return a list of patients associated with the specified doctor.
+     * @param patientId the ID of the patient whose doctors are to be retrieved.
+     * @return a list of doctors associated with the specified patient.
      */
+    @Transactional(readOnly = true)
     @Override
-    public Set<Doctor> viewDoctors(Patient patient) {
+    public Set<Doctor> viewDoctors(Long patientId) {
     	
-    	return patient.getDoctors();
+    	return patientRepository.findWithDoctorsById(patientId)
+    			.map(Patient::getDoctors)
+    			.orElseThrow(() -> new PatientNotFoundException("Patient not found with ID: " + patientId));
     }
 }
         
@@ -0,0 +1,132 @@
+package org.user.app.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.user.app.entity.Appointment;
+import org.user.app.entity.AppointmentStatus;
+import org.user.app.entity.Doctor;
+import org.user.app.repository.AppointmentRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+public class SlotGenerator {
+
+    public static final LocalTime DAY_START = LocalTime.of(9, 0);  // First slot starts at 9:00 AM
+    public static final LocalTime DAY_END = LocalTime.of(19, 0);  // Last slot ends at 7:00 PM
+    public static final int SLOT_MINUTES = 30;  // Length of one appointment slot
+    public static final int SLOTS_PER_DAY = 20;  // Number of slots between DAY_START and DAY_END
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private AppointmentMetrics appointmentMetrics;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    /**
+     * Build (without persisting) the half-hour slots of one doctor for a single day.
+     *
+     * @param doctor the doctor owning the slots
+     * @param date the day of the slots
+     * @return the unsaved appointment slots in start-time order
+     */
+    public List<Appointment> buildDay(Doctor doctor, LocalDate date) {
+        List<Appointment> slots = new ArrayList<>(SLOTS_PER_DAY);
+        LocalTime currentStartTime = DAY_START;
+
+        while (currentStartTime.isBefore(DAY_END)) {
+            slots.add(Appointment.builder()
+                    .doctor(doctor)
+                    .appointmentDate(date)
+                    .startTime(currentStartTime)
+                    .endTime(currentStartTime.plusMinutes(SLOT_MINUTES))
+                    .status(AppointmentStatus.AVAILABLE)
+                    .build());
+            currentStartTime = currentStartTime.plusMinutes(SLOT_MINUTES);
+        }
+        return slots;
+    }
+
+    /**
+     * Persist half-hour slots for several doctors over a date range.
+     * Inserts are sent as JDBC batches; every batch the persistence context is flushed and the new slots
+     * are detached, so memory stays flat no matter how many slots are generated. Only the generated slots
+     * are detached: entities the caller loaded in the same transaction (such as the doctors) stay managed.
+     * Slots that already exist are skipped, so overlapping ranges can be generated again. Two generations of
+     * the same slot running at once are stopped by the unique slot key: the later one fails and rolls back.
+     * The returned slots are detached.
+     *
+     * @param doctors the doctors for whom to create slots
+     * @param startDate the first day to generate (inclusive)
+     * @param endDate the last day to generate (inclusive)
+     * @return the persisted slots
+     */
+    @Transactional
+    public List<Appointment> generate(List<Doctor> doctors, LocalDate startDate, LocalDate endDate) {
+        List<Appointment> created = new ArrayList<>();
+        List<Appointment> pending = new ArrayList<>(batchSize);
+        Set<Key> existing = existingSlots(doctors, startDate, endDate);
+
+        for (Doctor doctor : doctors) {
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+                for (Appointment slot : buildDay(doctor, date)) {
+                    if (existing.contains(new Key(doctor.getId(), date, slot.getStartTime()))) {
+                        continue;
+                    }
+                    entityManager.persist(slot);
+                    created.add(slot);
+                    pending.add(slot);
+
+                    if (pending.size() == batchSize) {
+                        flushAndDetach(pending);
+                    }
+                }
+            }
+        }
+
+        flushAndDetach(pending);
+        availabilityIndex.slotsCreated(doctors, created);
+        appointmentMetrics.slotsGenerated(created.size());
+        return created;
+    }
+
+    private Set<Key> existingSlots(List<Doctor> doctors, LocalDate startDate, LocalDate endDate) {
+        Set<Key> existing = new HashSet<>();
+        if (doctors.isEmpty() || startDate.isAfter(endDate)) {
+            return existing;
+        }
+        List<Long> doctorIds = doctors.stream().map(Doctor::getId).toList();
+        appointmentRepository.findSlotKeys(doctorIds, startDate, endDate).forEach(slot ->
+                existing.add(new Key(slot.getDoctorId(), slot.getAppointmentDate(), slot.getStartTime())));
+        return existing;
+    }
+
+    private void flushAndDetach(List<Appointment> slots) {
+        entityManager.flush();
+        slots.forEach(entityManager::detach);
+        slots.clear();
+    }
+
+    // Unique slot key: doctor, date and start time
+    private record Key(Long doctorId, LocalDate date, LocalTime startTime) {
+    }
+}
@@ -0,0 +1,123 @@
+-- Baseline schema: the tables as ddl-auto=update created them up to this release.
+-- Databases that already have these tables are baselined at version 1 and skip this script
+-- (spring.flyway.baseline-on-migrate).
+
+create table admin (
+    id bigint not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    role varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table admin_sequence (
+    next_val bigint
+) engine=InnoDB;
+
+insert into admin_sequence values ( 1 );
+
+create table app_sequence (
+    next_val bigint
+) engine=InnoDB;
+
+insert into app_sequence values ( 1 );
+
+create table appointment (
+    appointment_date date not null,
+    end_time time(6) not null,
+    is_available bit not null,
+    start_time time(6) not null,
+    doctor_id bigint,
+    id bigint not null,
+    patient_id bigint,
+    status varchar(255) not null,
+    symptoms varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table doc_sequence (
+    next_val bigint
+) engine=InnoDB;
+
+insert into doc_sequence values ( 1 );
+
+create table doctor (
+    age integer,
+    id bigint not null,
+    password varchar(64) not null,
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    gender varchar(255) not null,
+    last_name varchar(255),
+    phone_no varchar(255),
+    role varchar(255),
+    specialization varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table med_sequence (
+    next_val bigint
+) engine=InnoDB;
+
+insert into med_sequence values ( 1 );
+
+create table medication (
+    appointment_id bigint,
+    id bigint not null,
+    dosage varchar(255),
+    frequency varchar(255),
+    instructions varchar(255),
+    name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table pat_sequence (
+    next_val bigint
+) engine=InnoDB;
+
+insert into pat_sequence values ( 1 );
+
+create table patient (
+    age integer,
+    id bigint not null,
+    password varchar(64) not null,
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    gender varchar(255) not null,
+    last_name varchar(255),
+    medical_history varchar(255),
+    phone_no varchar(255),
+    role varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table patient_doctor (
+    doctor_id bigint not null,
+    patient_id bigint not null,
+    primary key (doctor_id, patient_id)
+) engine=InnoDB;
+
+alter table appointment
+    add constraint FKoeb98n82eph1dx43v3y2bcmsl
+    foreign key (doctor_id)
+    references doctor (id);
+
+alter table appointment
+    add constraint FK4apif2ewfyf14077ichee8g06
+    foreign key (patient_id)
+    references patient (id);
+
+alter table medication
+    add constraint FKmdaok8ap8gt2cprpx5emwdm4g
+    foreign key (appointment_id)
+    references appointment (id);
+
+alter table patient_doctor
+    add constraint FKn9ydvc6pvgp7id3s7q63ik6xj
+    foreign key (doctor_id)
+    references doctor (id);
+
+alter table patient_doctor
+    add constraint FKtmtnhw88h1tnjg6i8pa6i3qao
+    foreign key (patient_id)
+    references patient (id);
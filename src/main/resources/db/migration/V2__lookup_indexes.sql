@@ -0,0 +1,22 @@
+-- Lookup indexes for login, slot search and patient appointment lists.
+--
+-- Online-safe DDL: every index is built with ALGORITHM=INPLACE, LOCK=NONE, so InnoDB keeps the
+-- table readable and writable while the index is built; MySQL refuses the statement instead of
+-- silently falling back to a locking copy. Only the brief metadata lock at the start and end is
+-- taken, and lock_wait_timeout bounds how long that waits behind long-running transactions
+-- rather than queueing all traffic behind the migration.
+-- New nullable columns in later scripts should likewise use ALGORITHM=INSTANT.
+
+SET SESSION lock_wait_timeout = 10;
+
+ALTER TABLE patient ADD UNIQUE INDEX uk_patient_email (email), ALGORITHM=INPLACE, LOCK=NONE;
+ALTER TABLE doctor ADD UNIQUE INDEX uk_doctor_email (email), ALGORITHM=INPLACE, LOCK=NONE;
+ALTER TABLE admin ADD UNIQUE INDEX uk_admin_email (email), ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE appointment ADD INDEX idx_appointment_doctor_date (doctor_id, appointment_date, is_available), ALGORITHM=INPLACE, LOCK=NONE;
+ALTER TABLE appointment ADD INDEX idx_appointment_date_available (appointment_date, is_available), ALGORITHM=INPLACE, LOCK=NONE;
+ALTER TABLE appointment ADD INDEX idx_appointment_patient_status (patient_id, status), ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE patient ADD INDEX idx_patient_first_name (first_name, id), ALGORITHM=INPLACE, LOCK=NONE;
+ALTER TABLE doctor ADD INDEX idx_doctor_first_name (first_name, id), ALGORITHM=INPLACE, LOCK=NONE;
+ALTER TABLE doctor ADD INDEX idx_doctor_specialization (specialization, id), ALGORITHM=INPLACE, LOCK=NONE;
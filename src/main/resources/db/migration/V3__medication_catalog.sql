@@ -0,0 +1,28 @@
+-- Medication catalog: the reference list of drug names, loaded from a file at startup, that prescriptions
+-- point to by ID. medication.name stays for prescriptions whose drug is not in the catalog and is left null
+-- once a row references a catalog entry.
+--
+-- Same online-safe rules as V2: the new column is added instantly, its index and foreign key in place.
+-- The column starts out all null, so the foreign key is added without checking existing rows.
+
+SET SESSION lock_wait_timeout = 10;
+
+create table drug_sequence (
+    next_val bigint
+) engine=InnoDB;
+
+insert into drug_sequence values ( 1 );
+
+create table drug (
+    id bigint not null,
+    name varchar(255) not null,
+    primary key (id),
+    unique key uk_drug_name (name)
+) engine=InnoDB;
+
+ALTER TABLE medication ADD COLUMN drug_id bigint, ALGORITHM=INSTANT;
+ALTER TABLE medication ADD INDEX idx_medication_drug (drug_id), ALGORITHM=INPLACE, LOCK=NONE;
+
+SET SESSION foreign_key_checks = 0;
+ALTER TABLE medication ADD CONSTRAINT fk_medication_drug FOREIGN KEY (drug_id) REFERENCES drug (id), ALGORITHM=INPLACE, LOCK=NONE;
+SET SESSION foreign_key_checks = 1;
@@ -0,0 +1,32 @@
+-- Appointment status as a one-byte code (AppointmentStatus): 0 = AVAILABLE, 1 = BOOKED, 2 = COMPLETED.
+-- Replaces the free-text status column and the redundant is_available flag, whose indexes move to the new column.
+--
+-- Existing rows: free slots become AVAILABLE, rows marked completed in any letter case become COMPLETED,
+-- every other taken slot is BOOKED. The backfill is one UPDATE; run it off-peak on large tables.
+-- The column changes are online (INPLACE, LOCK=NONE) like V2: one rebuild to drop the old columns and
+-- their indexes, one to make the new column NOT NULL under its final name and index it.
+
+SET SESSION lock_wait_timeout = 10;
+
+ALTER TABLE appointment ADD COLUMN status_code tinyint, ALGORITHM=INSTANT;
+
+UPDATE appointment SET status_code = CASE
+    WHEN is_available THEN 0
+    WHEN UPPER(status) = 'COMPLETED' THEN 2
+    ELSE 1
+END;
+
+ALTER TABLE appointment
+    DROP INDEX idx_appointment_doctor_date,
+    DROP INDEX idx_appointment_date_available,
+    DROP INDEX idx_appointment_patient_status,
+    DROP COLUMN status,
+    DROP COLUMN is_available,
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE appointment
+    CHANGE COLUMN status_code status tinyint not null,
+    ADD INDEX idx_appointment_doctor_date (doctor_id, appointment_date, status),
+    ADD INDEX idx_appointment_date_status (appointment_date, status),
+    ADD INDEX idx_appointment_patient_status (patient_id, status),
+    ALGORITHM=INPLACE, LOCK=NONE;
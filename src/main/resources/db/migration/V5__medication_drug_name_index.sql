@@ -0,0 +1,7 @@
+-- Index for linking free-text medications to the catalog: after an import that adds entries, rows with no
+-- drug_id are matched by name, which without this index scans and locks the whole medication table.
+-- Built online, as in V2.
+
+SET SESSION lock_wait_timeout = 10;
+
+ALTER TABLE medication ADD INDEX idx_medication_drug_name (drug_id, name), ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,19 @@
+-- One slot per doctor, date and start time, so overlapping slot generation (the nightly horizon job on two
+-- instances, or alongside an admin request) cannot insert the same slot twice and let it be booked twice.
+--
+-- Duplicates created before this key existed are removed first: a free copy is deleted when the same slot
+-- also exists booked or with a lower ID. Two booked copies of one slot are a real double booking and are
+-- left for manual resolution; the ALTER then fails and the migration can be rerun once they are fixed.
+-- The key is built online, as in V2.
+
+SET SESSION lock_wait_timeout = 10;
+
+DELETE a FROM appointment a
+JOIN appointment b
+    ON b.doctor_id = a.doctor_id
+    AND b.appointment_date = a.appointment_date
+    AND b.start_time = a.start_time
+    AND (b.status <> 0 OR b.id < a.id)
+WHERE a.status = 0;
+
+ALTER TABLE appointment ADD UNIQUE INDEX uk_appointment_doctor_slot (doctor_id, appointment_date, start_time), ALGORITHM=INPLACE, LOCK=NONE;
@@ -6,17 +6,31 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.user.app.dto.AvailableSlot;
+import org.user.app.dto.CalendarDay;
+import org.user.app.dto.CalendarSlot;
+import org.user.app.dto.DoctorAppointmentRow;
+import org.user.app.dto.DoctorAvailability;
+import org.user.app.dto.NextAvailableSlot;
+import org.user.app.dto.PatientAppointmentRow;
 import org.user.app.entity.Appointment;
+import org.user.app.entity.AppointmentStatus;
 import org.user.app.entity.Doctor;
-import org.user.app.entity.Medication;
 import org.user.app.entity.Patient;
 import org.user.app.exceptions.*;
 
 import org.user.app.repository.AppointmentRepository;
 import org.user.app.repository.DoctorRepository;
+import org.user.app.repository.MedicationRepository;
 import org.user.app.repository.PatientRepository;
+import org.user.app.service.AppointmentMetrics;
 import org.user.app.service.AppointmentServiceImpl;
+import org.user.app.service.AvailabilityIndex;
 import org.user.app.service.PatientServiceImpl;
+import org.user.app.service.SlotGenerator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -24,6 +38,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -45,57 +60,73 @@ class AppointmentServiceImplTest {
     @Mock
     private PatientRepository patientRepository;
 
+    @Mock
+    private MedicationRepository medicationRepository;
+
+    @Mock
+    private SlotGenerator slotGenerator;
+
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private AppointmentMetrics appointmentMetrics = new AppointmentMetrics(meterRegistry);
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
     }
 
     @Test
-	@DisplayName("Find available doctors - Success")
-	public void testFindAvailableDoctorsOnDate_Success() {
-	    // Given: Explicitly setting the start and end date
-	    LocalDate date = LocalDate.now();
-	
-
-	    // Create a mock doctor and mock appointment
-	    Doctor doctor = new Doctor();
-	    doctor.setId(1L); 
-
-	    // Mock the doctor list returned from the repository
-	    List<Doctor> doctorList = new ArrayList<>();
-	    doctorList.add(doctor);
-
-	    // Create a mock appointment for the doctor on the specified date
-	    Appointment appointment = new Appointment();
-	    appointment.setDoctor(doctor);
-	    appointment.setAppointmentDate(date);
-	    appointment.setAvailable(true);
-	    
-	    // Mock repository behavior
-	    when(doctorRepository.findAll()).thenReturn(doctorList);
-	    when(appointmentRepository.findByDoctorIdAndAppointmentDate(doctor.getId(), date))
-	        .thenReturn(List.of(appointment)); // Returning a list of appointments
-
-	    // When: Call the service method to find available doctors
-	    List<Doctor> result = appointmentServiceImpl.findAvailableDoctorsOnDate(date);
-
-	    // Then: Assert that a doctor is found and returned
-	    assertNotNull(result);
-	    assertEquals(1, result.size());
-	    verify(doctorRepository).findAll();
-	    verify(appointmentRepository).findByDoctorIdAndAppointmentDate(doctor.getId(), date);
-	}
-	
-    	
+    @DisplayName("Find available doctors - Success")
+    public void testFindAvailableDoctorsOnDate_Success() {
+        // Given: A date outside the indexed window and a doctor with free slots on that date
+        LocalDate date = LocalDate.now().plusYears(1);
+        DoctorAvailability doctor = new DoctorAvailability(1L, "John", "Doe", "Cardiology", 20L);
+        when(availabilityIndex.covers(date)).thenReturn(false);
+
+        // Mock the aggregate query returning the doctor
+        when(appointmentRepository.findAvailableDoctorsOnDate(date)).thenReturn(List.of(doctor));
+
+        // When: Call the service method to find available doctors
+        List<DoctorAvailability> result = appointmentServiceImpl.findAvailableDoctorsOnDate(date);
+
+        // Then: Assert that the doctor is returned using a single query and no per-doctor lookups
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertEquals(20L, result.get(0).getFreeSlots());
+        verify(appointmentRepository, times(1)).findAvailableDoctorsOnDate(date);
+        verify(appointmentRepository, never()).findScheduleRows(anyLong(), any(LocalDate.class));
+        verifyNoInteractions(doctorRepository);
+    }
+
+    @Test
+    @DisplayName("Find available doctors - Served from the availability index")
+    public void testFindAvailableDoctorsOnDate_FromIndex() {
+        // Given: A date inside the indexed window
+        LocalDate date = LocalDate.now();
+        DoctorAvailability doctor = new DoctorAvailability(1L, "John", "Doe", "Cardiology", 5L);
+        when(availabilityIndex.covers(date)).thenReturn(true);
+        when(availabilityIndex.doctorsFreeOn(date)).thenReturn(List.of(doctor));
+
+        // When: Call the service method to find available doctors
+        List<DoctorAvailability> result = appointmentServiceImpl.findAvailableDoctorsOnDate(date);
+
+        // Then: The index answers and the database is not queried
+        assertEquals(List.of(doctor), result);
+        verifyNoInteractions(appointmentRepository);
+    }
+
     @Test
     @DisplayName("Find available doctors - No available doctors")
     public void testFindAvailableDoctorsOnDate_NoDoctors() {
-        // Given: Setting up an empty doctor list for the test
+        // Given: Setting up a date with no free slots for any doctor
         LocalDate date = LocalDate.now();
-        List<Doctor> doctorList = new ArrayList<>();
 
-        // Mocking the doctor repository to return no doctors
-        when(doctorRepository.findAll()).thenReturn(doctorList);
+        // Mocking the aggregate query to return no doctors
+        when(appointmentRepository.findAvailableDoctorsOnDate(date)).thenReturn(new ArrayList<>());
 
         // When/Then: Verifying that an exception is thrown when no doctors are available
         NoAvailableDoctorsException exception = assertThrows(NoAvailableDoctorsException.class, () -> {
@@ -114,16 +145,33 @@ class AppointmentServiceImplTest {
         List<Appointment> availableAppointments = List.of(new Appointment());
 
         // Mocking the appointment repository to return available appointments for a given doctor and date
-        when(appointmentRepository.findByDoctorIdAndAppointmentDateAndIsAvailable(anyLong(), eq(date), eq(true)))
+        when(appointmentRepository.findByDoctorIdAndAppointmentDateAndStatus(anyLong(), eq(date), eq(AppointmentStatus.AVAILABLE)))
             .thenReturn(availableAppointments);
 
         // When: Calling the service method to find available appointments
-        List<Appointment> result = appointmentServiceImpl.findAvailableAppointments(1L, date);
+        List<AvailableSlot> result = appointmentServiceImpl.findAvailableAppointments(1L, date);
 
         // Then: Verifying the result is not null and has the expected size
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(appointmentRepository).findByDoctorIdAndAppointmentDateAndIsAvailable(1L, date, true);
+        verify(appointmentRepository).findByDoctorIdAndAppointmentDateAndStatus(1L, date, AppointmentStatus.AVAILABLE);
+    }
+
+    @Test
+    @DisplayName("Find available appointments - Served from the availability index")
+    public void testFindAvailableAppointments_FromIndex() {
+        // Given: A date inside the indexed window with one free slot
+        LocalDate date = LocalDate.now();
+        AvailableSlot slot = new AvailableSlot(7L, date, LocalTime.of(9, 0), LocalTime.of(9, 30));
+        when(availabilityIndex.covers(date)).thenReturn(true);
+        when(availabilityIndex.freeSlots(1L, date)).thenReturn(List.of(slot));
+
+        // When: Calling the service method to find available appointments
+        List<AvailableSlot> result = appointmentServiceImpl.findAvailableAppointments(1L, date);
+
+        // Then: The index answers and the database is not queried
+        assertEquals(List.of(slot), result);
+        verifyNoInteractions(appointmentRepository);
     }
 
     @Test
@@ -133,7 +181,7 @@ class AppointmentServiceImplTest {
         LocalDate date = LocalDate.now();
 
         // Mocking the appointment repository to return no available appointments
-        when(appointmentRepository.findByDoctorIdAndAppointmentDateAndIsAvailable(anyLong(), eq(date), eq(true)))
+        when(appointmentRepository.findByDoctorIdAndAppointmentDateAndStatus(anyLong(), eq(date), eq(AppointmentStatus.AVAILABLE)))
             .thenReturn(new ArrayList<>());
 
         // When/Then: Verifying that an exception is thrown when no appointments are available
@@ -145,25 +193,83 @@ class AppointmentServiceImplTest {
         assertEquals("No available appointments for doctor ID 1 on " + date, exception.getMessage());
     }
 
+    @Test
+    @DisplayName("Create half-hour appointments - Delegates to the bulk slot generator")
+    public void testCreateHalfHourAppointmentsForDoctor() {
+        // Given: A doctor and a date range
+        Doctor doctor = new Doctor();
+        LocalDate start = LocalDate.now();
+        LocalDate end = start.plusDays(1);
+        List<Appointment> slots = List.of(new Appointment(), new Appointment());
+        when(slotGenerator.generate(List.of(doctor), start, end)).thenReturn(slots);
+
+        // When: Creating the slots through the service
+        List<Appointment> result = appointmentServiceImpl.createHalfHourAppointmentsForDoctor(doctor, start, end);
+
+        // Then: The generator's slots are returned and nothing is saved one by one
+        assertEquals(slots, result);
+        verify(slotGenerator).generate(List.of(doctor), start, end);
+        verify(appointmentRepository, never()).saveAll(any());
+    }
+
     @Test
     @DisplayName("Book appointment - Success")
     public void testBookAppointment_Success() {
-        // Given: Setting up a patient and an appointment with symptoms
+        // Given: A patient and a slot that is still available
         Patient patient = new Patient();
+        Doctor doctor = new Doctor();
+        doctor.setId(3L);
         Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
         appointment.setSymptoms("Cough");
 
-        // Mocking the patient repository to return the patient and the appointment repository to save the appointment
+        // Mocking the patient lookup, the conditional update claiming the slot and the reload
         when(patientRepository.findById(anyLong())).thenReturn(Optional.of(patient));
-        when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
+        when(appointmentRepository.bookIfAvailable(2L, patient, "Cough")).thenReturn(1);
+        when(appointmentRepository.findWithDoctorAndPatientById(2L)).thenReturn(Optional.of(appointment));
 
         // When: Booking the appointment through the service
-        Appointment result = appointmentServiceImpl.bookAppointment(1L, appointment);
+        Appointment result = appointmentServiceImpl.bookAppointment(1L, 2L, "Cough");
 
-        // Then: Verifying that the result is not null and the symptoms match
+        // Then: The slot is claimed with a single conditional update, without a read-modify-write save
         assertNotNull(result);
         assertEquals("Cough", result.getSymptoms());
-        verify(appointmentRepository).save(appointment);
+        verify(appointmentRepository).bookIfAvailable(2L, patient, "Cough");
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+        verify(patientServiceImpl).addDoctor(1L, 3L);
+        verify(availabilityIndex).markBooked(appointment);
+        assertEquals(1, meterRegistry.get("appointments.operation")
+                .tags("operation", AppointmentMetrics.BOOK, "outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("Book appointment - Slot already taken")
+    public void testBookAppointment_SlotAlreadyBooked() {
+        // Given: A patient and a slot that another patient claimed first
+        Patient patient = new Patient();
+        when(patientRepository.findById(anyLong())).thenReturn(Optional.of(patient));
+        when(appointmentRepository.bookIfAvailable(2L, patient, "Cough")).thenReturn(0);
+        Appointment taken = new Appointment();
+        taken.setAppointmentDate(LocalDate.now().plusDays(1));
+        when(appointmentRepository.findById(2L)).thenReturn(Optional.of(taken));
+
+        // When/Then: Verifying that a SlotAlreadyBookedException is thrown
+        SlotAlreadyBookedException exception = assertThrows(SlotAlreadyBookedException.class, () -> {
+            appointmentServiceImpl.bookAppointment(1L, 2L, "Cough");
+        });
+
+        // Then: Nothing else is touched for the losing request
+        assertEquals("Appointment with ID 2 is no longer available", exception.getMessage());
+        verify(patientServiceImpl, never()).addDoctor(anyLong(), anyLong());
+        verify(availabilityIndex, never()).markBooked(any());
+
+        // Then: The day the index wrongly showed as free is dropped from it
+        verify(availabilityIndex).evict(taken.getAppointmentDate());
+
+        // Then: The conflict is counted and the booking is timed with its failure outcome
+        assertEquals(1.0, meterRegistry.get("appointments.booking.conflicts").counter().count());
+        assertEquals(1, meterRegistry.get("appointments.operation")
+                .tags("operation", AppointmentMetrics.BOOK, "outcome", "SlotAlreadyBookedException").timer().count());
     }
 
     @Test
@@ -174,49 +280,44 @@ class AppointmentServiceImplTest {
 
         // When/Then: Verifying that a PatientNotFoundException is thrown
         PatientNotFoundException exception = assertThrows(PatientNotFoundException.class, () -> {
-            appointmentServiceImpl.bookAppointment(1L, new Appointment());
+            appointmentServiceImpl.bookAppointment(1L, 2L, "Cough");
         });
 
         // Then: Asserting the exception message matches the expected output
         assertEquals("Patient not found with ID: 1", exception.getMessage());
+        verify(appointmentRepository, never()).bookIfAvailable(anyLong(), any(), any());
     }
 
     @Test
     @DisplayName("Cancel appointment - Success")
     void testCancelAppointment_Success() {
-        // Given: Setting up an appointment and medication
+        // Given: The conditional UPDATE frees the patient's booked slot
         Appointment appointment = new Appointment();
-        appointment.setId(1L);  // Set the ID for the appointment
-        appointment.setAppointmentDate(LocalDate.now().plusDays(1));
-        appointment.setStartTime(LocalTime.of(10, 0));
-        appointment.setStatus("BOOKED");
-        appointment.setMedications(new HashSet<>());  // Initialize the medications set
-
-        // Mock the repository to return the appointment when searched by ID
-        when(appointmentRepository.findById(anyLong())).thenReturn(Optional.of(appointment));
-        when(appointmentRepository.findByIdAndPatientId(anyLong(), anyLong())).thenReturn(Optional.of(appointment));
-        when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
-
-        
+        appointment.setId(1L);
+        appointment.setStatus(AppointmentStatus.AVAILABLE);
+        when(appointmentRepository.cancelIfBookedFrom(eq(1L), eq(2L), any(LocalDate.class), any(LocalTime.class))).thenReturn(1);
+        when(appointmentRepository.findWithDoctorAndPatientById(1L)).thenReturn(Optional.of(appointment));
 
         // When: Canceling the appointment
-        Appointment result = appointmentServiceImpl.cancelAppointment(1L, 1L);
-
-        // Then: Verifying the status change and that the patient is null after cancellation
-        assertEquals("AVAILABLE", result.getStatus());
-        assertNull(result.getPatient());
-        verify(appointmentRepository).save(appointment);
+        Appointment result = appointmentServiceImpl.cancelAppointment(1L, 2L);
+
+        // Then: The slot is freed without a prior read, its medications removed and the index updated
+        assertEquals(AppointmentStatus.AVAILABLE, result.getStatus());
+        verify(appointmentRepository, never()).findByIdAndPatientId(anyLong(), anyLong());
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+        verify(medicationRepository).deleteByAppointmentId(1L);
+        verify(availabilityIndex).markFree(appointment);
     }
 
     @Test
     @DisplayName("Cancel appointment - Cannot cancel within 4 hours")
     public void testCancelAppointment_CannotCancelWithinFourHours() {
-        // Given: Setting up an appointment within 4 hours
+        // Given: A booked appointment that the conditional UPDATE did not match because it starts too soon
         Appointment appointment = new Appointment();
         appointment.setAppointmentDate(LocalDate.now());
         appointment.setStartTime(LocalTime.now().plusHours(3));
-
-        // Mocking the appointment repository to return the appointment
+        appointment.setStatus(AppointmentStatus.BOOKED);
+        when(appointmentRepository.cancelIfBookedFrom(anyLong(), anyLong(), any(LocalDate.class), any(LocalTime.class))).thenReturn(0);
         when(appointmentRepository.findByIdAndPatientId(anyLong(), anyLong())).thenReturn(Optional.of(appointment));
 
         // When/Then: Verifying that a CannotCancelWithinFourHoursException is thrown
@@ -224,8 +325,39 @@ class AppointmentServiceImplTest {
             appointmentServiceImpl.cancelAppointment(1L, 1L);
         });
 
-        // Then: Asserting the exception message matches the expected output
+        // Then: Asserting the exception message matches the expected output and nothing was removed
         assertEquals("Cannot cancel within 4 hours of the appointment.", exception.getMessage());
+        verify(medicationRepository, never()).deleteByAppointmentId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Cancel appointment - Completed appointments cannot be cancelled")
+    public void testCancelAppointment_Completed() {
+        // Given: The patient's appointment is already completed
+        Appointment appointment = new Appointment();
+        appointment.setStatus(AppointmentStatus.COMPLETED);
+        when(appointmentRepository.cancelIfBookedFrom(anyLong(), anyLong(), any(LocalDate.class), any(LocalTime.class))).thenReturn(0);
+        when(appointmentRepository.findByIdAndPatientId(1L, 1L)).thenReturn(Optional.of(appointment));
+
+        // When/Then: The transition is rejected
+        InvalidStatusTransitionException exception = assertThrows(InvalidStatusTransitionException.class, () -> {
+            appointmentServiceImpl.cancelAppointment(1L, 1L);
+        });
+        assertEquals("Appointment with ID 1 is COMPLETED and cannot be cancelled", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Cancel appointment - Not the patient's appointment")
+    public void testCancelAppointment_NotFound() {
+        // Given: No appointment with the ID belongs to the patient
+        when(appointmentRepository.cancelIfBookedFrom(anyLong(), anyLong(), any(LocalDate.class), any(LocalTime.class))).thenReturn(0);
+        when(appointmentRepository.findByIdAndPatientId(1L, 1L)).thenReturn(Optional.empty());
+
+        // When/Then: Verifying that an AppointmentNotFoundException is thrown
+        AppointmentNotFoundException exception = assertThrows(AppointmentNotFoundException.class, () -> {
+            appointmentServiceImpl.cancelAppointment(1L, 1L);
+        });
+        assertEquals("Appointment not found or does not belong to the patient with ID: 1", exception.getMessage());
     }
 
     @Test
@@ -233,18 +365,21 @@ class AppointmentServiceImplTest {
     public void testViewAppointments_Success() {
         // Given: Setting up a date and a list of appointments
         LocalDate date = LocalDate.now();
-        List<Appointment> appointments = List.of(new Appointment());
+        List<DoctorAppointmentRow> appointments = List.of(
+                new DoctorAppointmentRow(1L, LocalTime.of(9, 0), AppointmentStatus.BOOKED, "Jane", "Doe"));
 
-        // Mocking the appointment repository to return appointments for the doctor and date
-        when(appointmentRepository.findByDoctorIdAndAppointmentDate(anyLong(), eq(date))).thenReturn(appointments);
+        // Mocking the projection query to return the schedule for the doctor and date
+        when(appointmentRepository.findScheduleRows(anyLong(), eq(date))).thenReturn(appointments);
 
         // When: Viewing the appointments through the service
-        List<Appointment> result = appointmentServiceImpl.viewAppointments(1L, date);
+        List<DoctorAppointmentRow> result = appointmentServiceImpl.viewAppointments(1L, date);
 
-        // Then: Verifying the result is not null and has the expected size
+        // Then: Verifying the rows come from the single projection query
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(appointmentRepository).findByDoctorIdAndAppointmentDate(1L, date);
+        assertEquals("Jane", result.get(0).getPatientFirstName());
+        verify(appointmentRepository).findScheduleRows(1L, date);
+        verify(appointmentRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -254,7 +389,7 @@ class AppointmentServiceImplTest {
         LocalDate date = LocalDate.now();
 
         // Mocking the appointment repository to return no appointments
-        when(appointmentRepository.findByDoctorIdAndAppointmentDate(anyLong(), eq(date))).thenReturn(new ArrayList<>());
+        when(appointmentRepository.findScheduleRows(anyLong(), eq(date))).thenReturn(new ArrayList<>());
 
         // When/Then: Verifying that an AppointmentNotFoundException is thrown
         AppointmentNotFoundException exception = assertThrows(AppointmentNotFoundException.class, () -> {
@@ -265,6 +400,40 @@ class AppointmentServiceImplTest {
         assertEquals("No appointments found for doctor ID: 1 on " + date, exception.getMessage());
     }
 
+    @Test
+    @DisplayName("Find appointments by patient and status - Success")
+    public void testFindByPatientIdAndStatus_Success() {
+        // Given: A booked appointment row with its doctor's name
+        List<PatientAppointmentRow> appointments = List.of(new PatientAppointmentRow(
+                5L, LocalDate.now().plusDays(1), LocalTime.of(10, 0), AppointmentStatus.BOOKED, "John", "Smith"));
+
+        // Mocking the projection query to return the patient's appointments
+        when(appointmentRepository.findPatientRows(1L, AppointmentStatus.BOOKED)).thenReturn(appointments);
+
+        // When: Finding the appointments through the service
+        List<PatientAppointmentRow> result = appointmentServiceImpl.findByPatientIdAndStatus(1L, AppointmentStatus.BOOKED);
+
+        // Then: Verifying the rows carry the doctor's name without loading the doctor
+        assertEquals(1, result.size());
+        assertEquals("Smith", result.get(0).getDoctorLastName());
+        verifyNoInteractions(doctorRepository);
+    }
+
+    @Test
+    @DisplayName("Find appointments by patient and status - No appointments found")
+    public void testFindByPatientIdAndStatus_NoAppointments() {
+        // Given: No appointments for the patient with the status
+        when(appointmentRepository.findPatientRows(1L, AppointmentStatus.COMPLETED)).thenReturn(new ArrayList<>());
+
+        // When/Then: Verifying that an AppointmentNotFoundException is thrown
+        AppointmentNotFoundException exception = assertThrows(AppointmentNotFoundException.class, () -> {
+            appointmentServiceImpl.findByPatientIdAndStatus(1L, AppointmentStatus.COMPLETED);
+        });
+
+        // Then: Asserting the exception message matches the expected output
+        assertEquals("No appointments found for patient ID: 1 with status: COMPLETED", exception.getMessage());
+    }
+
     @Test
     @DisplayName("Find appointment by ID - Success")
     public void testFindAppointmentById_Success() {
@@ -272,21 +441,21 @@ class AppointmentServiceImplTest {
         Appointment appointment = new Appointment();
         
         // Mocking the appointment repository to return the appointment by ID
-        when(appointmentRepository.findById(anyLong())).thenReturn(Optional.of(appointment));
+        when(appointmentRepository.findWithDoctorAndPatientById(anyLong())).thenReturn(Optional.of(appointment));
 
         // When: Finding the appointment by ID through the service
         Appointment result = appointmentServiceImpl.findAppointmentById(1L);
 
-        // Then: Verifying the result is not null
+        // Then: Verifying the appointment is loaded with its doctor and patient in one query
         assertNotNull(result);
-        verify(appointmentRepository).findById(1L);
+        verify(appointmentRepository).findWithDoctorAndPatientById(1L);
     }
 
     @Test
     @DisplayName("Find appointment by ID - Appointment not found")
     public void testFindAppointmentById_NotFound() {
         // Given: Mocking the appointment repository to return empty (appointment not found)
-        when(appointmentRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(appointmentRepository.findWithDoctorAndPatientById(anyLong())).thenReturn(Optional.empty());
 
         // When/Then: Verifying that an AppointmentNotFoundException is thrown
         AppointmentNotFoundException exception = assertThrows(AppointmentNotFoundException.class, () -> {
@@ -300,40 +469,171 @@ class AppointmentServiceImplTest {
     @Test
     @DisplayName("Update appointment status - Success")
     void testUpdateAppointmentStatus_Success() {
-        // Given: Create an appointment with an initial status
+        // Given: The conditional UPDATE moves the booked appointment to COMPLETED
         Appointment appointment = new Appointment();
-        appointment.setStatus("PENDING");
-
-        // Mock the repository to return the appointment when its ID is queried
-        when(appointmentRepository.findById(anyLong())).thenReturn(Optional.of(appointment));
-        // Mock the repository to return the same appointment when saving
-        when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
+        appointment.setStatus(AppointmentStatus.COMPLETED);
+        when(appointmentRepository.transition(1L, Set.of(AppointmentStatus.BOOKED), AppointmentStatus.COMPLETED)).thenReturn(1);
+        when(appointmentRepository.findWithDoctorAndPatientById(1L)).thenReturn(Optional.of(appointment));
 
         // When: Call the service method to update the appointment status
-        Appointment result = appointmentServiceImpl.updateAppointmentStatus(1L, "CONFIRMED");
+        Appointment result = appointmentServiceImpl.updateAppointmentStatus(1L, AppointmentStatus.COMPLETED);
 
-        // Then: Verify that the result is not null and the status has been updated
-        assertNotNull(result);
-        assertEquals("CONFIRMED", result.getStatus());
-        // Verify that the repository's save method was called once with the updated appointment
-        verify(appointmentRepository).save(appointment);
+        // Then: The status changed in one statement, without reading and saving the entity
+        assertEquals(AppointmentStatus.COMPLETED, result.getStatus());
+        verify(appointmentRepository, never()).findById(anyLong());
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+    }
+
+    @Test
+    @DisplayName("Update appointment status - Not allowed from the current status")
+    void testUpdateAppointmentStatus_InvalidTransition() {
+        // Given: The appointment is a free slot, so the conditional UPDATE matches nothing
+        Appointment appointment = new Appointment();
+        appointment.setStatus(AppointmentStatus.AVAILABLE);
+        when(appointmentRepository.transition(anyLong(), any(), any())).thenReturn(0);
+        when(appointmentRepository.findWithDoctorAndPatientById(1L)).thenReturn(Optional.of(appointment));
+
+        // When / Then: The transition is rejected
+        InvalidStatusTransitionException exception = assertThrows(InvalidStatusTransitionException.class, () -> {
+            appointmentServiceImpl.updateAppointmentStatus(1L, AppointmentStatus.COMPLETED);
+        });
+        assertEquals("Appointment with ID 1 is AVAILABLE and cannot become COMPLETED", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Update appointment status - Booking and cancelling are not set directly")
+    void testUpdateAppointmentStatus_NotSetByDoctor() {
+        // When / Then: Setting BOOKED directly is rejected without touching the database
+        assertThrows(InvalidStatusTransitionException.class, () -> {
+            appointmentServiceImpl.updateAppointmentStatus(1L, AppointmentStatus.BOOKED);
+        });
+        verifyNoInteractions(appointmentRepository);
     }
 
     @Test
     @DisplayName("Update appointment status - Appointment not found")
     void testUpdateAppointmentStatus_AppointmentNotFound() {
-        // Mock the repository to return an empty result for a non-existent appointment
-        when(appointmentRepository.findById(anyLong())).thenReturn(Optional.empty());
+        // Mock the repository: the UPDATE matches nothing and the appointment does not exist
+        when(appointmentRepository.transition(anyLong(), any(), any())).thenReturn(0);
+        when(appointmentRepository.findWithDoctorAndPatientById(anyLong())).thenReturn(Optional.empty());
 
         // When / Then: Ensure that an AppointmentNotFoundException is thrown
         AppointmentNotFoundException exception = assertThrows(AppointmentNotFoundException.class, () -> {
-            appointmentServiceImpl.updateAppointmentStatus(1L, "CONFIRMED");
+            appointmentServiceImpl.updateAppointmentStatus(1L, AppointmentStatus.COMPLETED);
         });
 
         // Assert that the exception message matches the expected message
         assertEquals("Appointment not found with ID: 1", exception.getMessage());
     }
 
+    @Test
+    @DisplayName("View calendar - One range query grouped by day")
+    void testViewCalendar_GroupsRowsByDay() {
+        // Given: Two slots on the first day and one on the third day of a three-day range
+        LocalDate from = LocalDate.of(2024, 10, 7);
+        LocalDate to = from.plusDays(2);
+        List<CalendarSlot> rows = List.of(
+                new CalendarSlot(1L, from, LocalTime.of(9, 0), AppointmentStatus.BOOKED, "John", "Doe"),
+                new CalendarSlot(2L, from, LocalTime.of(9, 30), AppointmentStatus.AVAILABLE),
+                new CalendarSlot(3L, to, LocalTime.of(10, 0), AppointmentStatus.COMPLETED, "Jane", "Roe"));
+        when(appointmentRepository.findCalendarRows(1L, from, to)).thenReturn(rows);
+
+        // When: Viewing the calendar
+        List<CalendarDay> days = appointmentServiceImpl.viewCalendar(1L, from, to);
+
+        // Then: Every day of the range is present, including the empty one
+        assertEquals(3, days.size());
+        assertEquals(List.of(1L), days.get(0).getAppointments().stream().map(CalendarSlot::getId).toList());
+        assertEquals(1, days.get(0).getFreeCount());
+        assertTrue(days.get(1).getSlots().isEmpty());
+        assertEquals(to, days.get(2).getDate());
+        assertEquals(List.of(3L), days.get(2).getAppointments().stream().map(CalendarSlot::getId).toList());
+        verify(appointmentRepository, times(1)).findCalendarRows(1L, from, to);
+    }
+
+    @Test
+    @DisplayName("Available calendar - Past days are not queried")
+    void testFindAvailableCalendar_SkipsPastDays() {
+        // Given: A week that started three days ago
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusDays(3);
+        LocalDate to = from.plusDays(6);
+        when(appointmentRepository.findFreeCalendarRows(1L, today, to)).thenReturn(List.of(
+                new CalendarSlot(5L, today.plusDays(1), LocalTime.of(9, 0), AppointmentStatus.AVAILABLE)));
+
+        // When: Finding the free slots of the week
+        List<CalendarDay> days = appointmentServiceImpl.findAvailableCalendar(1L, from, to);
+
+        // Then: The query starts today, but the page still has all seven days
+        assertEquals(7, days.size());
+        assertEquals(1, days.get(4).getSlots().size());
+        verify(appointmentRepository, times(1)).findFreeCalendarRows(1L, today, to);
+    }
+
+    @Test
+    @DisplayName("Available calendar - Range entirely in the past")
+    void testFindAvailableCalendar_PastRange() {
+        // Given: Last week
+        LocalDate from = LocalDate.now().minusDays(10);
+        LocalDate to = from.plusDays(6);
+
+        // When: Finding the free slots of that week
+        List<CalendarDay> days = appointmentServiceImpl.findAvailableCalendar(1L, from, to);
+
+        // Then: Seven empty days and no query at all
+        assertEquals(7, days.size());
+        assertTrue(days.stream().allMatch(day -> day.getSlots().isEmpty()));
+        verifyNoInteractions(appointmentRepository);
+    }
+
+    @Test
+    @DisplayName("Next available - Answered from the availability index")
+    void testFindNextAvailable_Success() {
+        // Given: Cardiology is known, its first free afternoon slot is tomorrow, and the index has it
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        NextAvailableSlot slot = new NextAvailableSlot(7L, tomorrow, LocalTime.of(9, 0), LocalTime.of(9, 30),
+                1L, "John", "Doe", "Cardiology");
+        when(doctorRepository.findSpecializations()).thenReturn(List.of("Cardiology", "Neurology"));
+        when(appointmentRepository.findFirstFreeDate("Cardiology", LocalDate.now(), null, LocalTime.of(12, 0))).thenReturn(tomorrow);
+        when(availabilityIndex.covers(tomorrow)).thenReturn(true);
+        when(availabilityIndex.earliestFree("Cardiology", tomorrow, null, LocalTime.of(12, 0), 50)).thenReturn(List.of(slot));
+
+        // When: Asking for more slots than the cap, with the specialization in another case
+        List<NextAvailableSlot> slots = appointmentServiceImpl.findNextAvailable("cardiology", null, LocalTime.of(12, 0), 500);
+
+        // Then: The index is searched from the first free date for at most 50 slots
+        assertEquals(List.of(slot), slots);
+    }
+
+    @Test
+    @DisplayName("Next available - Unknown specialization")
+    void testFindNextAvailable_UnknownSpecialization() {
+        // Given: No doctor has the specialization
+        when(doctorRepository.findSpecializations()).thenReturn(List.of("Cardiology"));
+
+        // When / Then: It is rejected before any slot is looked up
+        NoAvailableDoctorsException exception = assertThrows(NoAvailableDoctorsException.class, () -> {
+            appointmentServiceImpl.findNextAvailable("Cardiolgy", null, null, 10);
+        });
+        assertEquals("No doctors with specialization Cardiolgy", exception.getMessage());
+        verifyNoInteractions(appointmentRepository, availabilityIndex);
+    }
+
+    @Test
+    @DisplayName("Next available - No free slots")
+    void testFindNextAvailable_NoSlots() {
+        // Given: The specialization has no free slot in the window
+        when(doctorRepository.findSpecializations()).thenReturn(List.of("Cardiology"));
+        when(appointmentRepository.findFirstFreeDate(eq("Cardiology"), any(), any(), any())).thenReturn(null);
+
+        // When / Then: Ensure that a NoAvailableAppointmentsException is thrown without loading the index
+        NoAvailableAppointmentsException exception = assertThrows(NoAvailableAppointmentsException.class, () -> {
+            appointmentServiceImpl.findNextAvailable("Cardiology", LocalTime.of(18, 0), null, 10);
+        });
+        assertEquals("No available appointments for Cardiology", exception.getMessage());
+        verifyNoInteractions(availabilityIndex);
+    }
+
     @Test
     @DisplayName("Save appointment successfully")
     public void testSaveAppointmentSuccess() {
@@ -350,48 +650,4 @@ class AppointmentServiceImplTest {
         // Verify that the repository's save method was called once with the appointment
         verify(appointmentRepository, times(1)).save(appointment);
     }
-
-    @Test
-    @DisplayName("Add medication to appointment successfully")
-    public void testAddMedsSuccess() {
-        // Given: Create an appointment and initialize the medications set
-        Appointment appointment = new Appointment();
-        appointment.setMedications(new HashSet<>()); // Initialize medications set
-        Medication medication = new Medication();
-        
-        // Mock the repository to return the appointment when its ID is queried
-        when(appointmentRepository.findById(1L)).thenReturn(Optional.of(appointment));
-        // Mock the repository to return the same appointment when saving
-        when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
-        
-        // When: Call the service method to add medication to the appointment
-        Appointment updatedAppointment = appointmentServiceImpl.addMeds(1L, medication);
-        
-        // Then: Verify that the result is not null and the medication has been added
-        assertNotNull(updatedAppointment);
-        assertTrue(updatedAppointment.getMedications().contains(medication)); // Check if medication was added
-        // Verify that the repository's findById method was called once
-        verify(appointmentRepository, times(1)).findById(1L);
-        // Verify that the repository's save method was called once with the updated appointment
-        verify(appointmentRepository, times(1)).save(appointment);
-    }
-
-    @Test
-    @DisplayName("Add medication failure when appointment not found")
-    public void testAddMedsFailure_AppointmentNotFound() {
-        // Given: Create a medication to be added
-        Medication medication = new Medication();
-        
-        // Mock the repository to return an empty result for a non-existent appointment
-        when(appointmentRepository.findById(1L)).thenReturn(Optional.empty());
-        
-        // When / Then: Ensure that an AppointmentNotFoundException is thrown
-        assertThrows(AppointmentNotFoundException.class, () -> appointmentServiceImpl.addMeds(1L, medication));
-        // Verify that the repository's findById method was called once
-        verify(appointmentRepository, times(1)).findById(1L);
-        // Verify that the repository's save method was not called
-        verify(appointmentRepository, times(0)).save(any(Appointment.class));
-    }
 }
-
-
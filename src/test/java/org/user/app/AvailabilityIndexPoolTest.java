@@ -0,0 +1,147 @@
+package org.user.app;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.user.app.config.ReadReplicaConfig;
+import org.user.app.dto.AvailableSlot;
+import org.user.app.repository.FreeSlotReader;
+import org.user.app.service.AvailabilityIndex;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AvailabilityIndexPoolTest {
+
+    private static final int POOL_SIZE = 4;
+
+    private final LocalDate firstDay = LocalDate.now().plusDays(1);
+
+    private HikariDataSource primary;
+
+    private HikariDataSource replica;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        primary = pool("primary");
+        replica = pool("replica");
+        executor = Executors.newFixedThreadPool(POOL_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        new JdbcTemplate(primary).execute("SHUTDOWN");
+        new JdbcTemplate(replica).execute("SHUTDOWN");
+        primary.close();
+        replica.close();
+    }
+
+    // A pool of POOL_SIZE connections on its own database, with one free 9:00 slot per day for the next POOL_SIZE days
+    private HikariDataSource pool(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(POOL_SIZE);
+        dataSource.setConnectionTimeout(1000);
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE doctor (id BIGINT, first_name VARCHAR(255), last_name VARCHAR(255), specialization VARCHAR(255))");
+        jdbc.execute("CREATE TABLE appointment (id BIGINT, doctor_id BIGINT, appointment_date DATE, start_time TIME, status TINYINT)");
+        jdbc.update("INSERT INTO doctor VALUES (1, 'John', 'Doe', ?)", name);
+        for (int day = 0; day < POOL_SIZE; day++) {
+            jdbc.update("INSERT INTO appointment VALUES (?, 1, ?, '09:00:00', 0)", day + 1, firstDay.plusDays(day));
+        }
+        return dataSource;
+    }
+
+    private AvailabilityIndex index(DataSource dataSource) {
+        AvailabilityIndex index = new AvailabilityIndex();
+        ReflectionTestUtils.setField(index, "freeSlotReader", new FreeSlotReader(dataSource));
+        ReflectionTestUtils.setField(index, "horizonDays", 60);
+        ReflectionTestUtils.setField(index, "reloadSeconds", 30L);
+        return index;
+    }
+
+    // POOL_SIZE read-only transactions, each holding its connection, then each loading a different day into the index
+    private List<List<AvailableSlot>> concurrentColdLookups(DataSource dataSource, AvailabilityIndex index) throws Exception {
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        CyclicBarrier allHoldConnections = new CyclicBarrier(POOL_SIZE);
+
+        List<Future<List<AvailableSlot>>> lookups = new ArrayList<>();
+        for (int day = 0; day < POOL_SIZE; day++) {
+            LocalDate date = firstDay.plusDays(day);
+            lookups.add(executor.submit(() -> readOnly.execute(status -> {
+                jdbc.queryForObject("SELECT COUNT(*) FROM doctor", Integer.class);
+                await(allHoldConnections);
+                return index.freeSlots(1L, date);
+            })));
+        }
+
+        List<List<AvailableSlot>> results = new ArrayList<>();
+        for (Future<List<AvailableSlot>> lookup : lookups) {
+            results.add(lookup.get(10, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Cold lookups share the caller's connection when every connection of the pool is taken")
+    public void testConcurrentColdLookupsOnSinglePool() throws Exception {
+        // When: As many concurrent cold lookups as the pool has connections, each inside a transaction
+        List<List<AvailableSlot>> results = concurrentColdLookups(primary, index(primary));
+
+        // Then: None waited for a second connection, and each day was loaded
+        for (int day = 0; day < POOL_SIZE; day++) {
+            assertEquals(List.of((long) day + 1), results.get(day).stream().map(AvailableSlot::getId).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Cold lookups in replica transactions load the index from the primary")
+    public void testConcurrentColdLookupsWithReplica() throws Exception {
+        // Given: The routing data source, with the replica missing the slots of all but the first day
+        new JdbcTemplate(replica).update("DELETE FROM appointment WHERE appointment_date > ?", firstDay);
+        DataSource routing = new ReadReplicaConfig().dataSource(primary, replica);
+        AvailabilityIndex index = index(routing);
+
+        // When: Every replica connection is held by a read-only transaction doing a cold lookup
+        List<List<AvailableSlot>> results = concurrentColdLookups(routing, index);
+
+        // Then: All lookups completed with the primary's slots
+        for (int day = 0; day < POOL_SIZE; day++) {
+            assertEquals(1, results.get(day).size());
+        }
+        assertEquals("primary", index.doctorsFreeOn(firstDay).get(0).getSpecialization());
+    }
+}
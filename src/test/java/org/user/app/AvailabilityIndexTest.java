@@ -0,0 +1,336 @@
+package org.user.app;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.user.app.dto.AvailableSlot;
+import org.user.app.dto.DoctorAvailability;
+import org.user.app.dto.FreeSlotRow;
+import org.user.app.dto.NextAvailableSlot;
+import org.user.app.entity.Appointment;
+import org.user.app.entity.AppointmentStatus;
+import org.user.app.entity.Doctor;
+import org.user.app.repository.FreeSlotReader;
+import org.user.app.service.AvailabilityIndex;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AvailabilityIndexTest {
+
+    @InjectMocks
+    private AvailabilityIndex availabilityIndex;
+
+    @Mock
+    private FreeSlotReader freeSlotReader;
+
+    private final LocalDate date = LocalDate.now().plusDays(1);
+
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(availabilityIndex, "horizonDays", 60);
+        ReflectionTestUtils.setField(availabilityIndex, "reloadSeconds", 30L);
+
+        doctor = new Doctor();
+        doctor.setId(1L);
+        doctor.setFirstName("John");
+        doctor.setLastName("Doe");
+        doctor.setSpecialization("Cardiology");
+
+        // Doctor 1 has the 9:00 and 9:30 slots free on the date
+        List<FreeSlotRow> rows = List.of(row(10L, 1L, LocalTime.of(9, 0)), row(11L, 1L, LocalTime.of(9, 30)));
+        when(freeSlotReader.findFreeSlotsOnDate(date)).thenReturn(rows);
+    }
+
+    private FreeSlotRow row(Long id, Long doctorId, LocalTime startTime) {
+        return row(id, doctorId, startTime, "Cardiology");
+    }
+
+    private FreeSlotRow row(Long id, Long doctorId, LocalTime startTime, String specialization) {
+        return new FreeSlotRow(id, doctorId, "John", "Doe", specialization, startTime);
+    }
+
+    private Appointment slot(Long id, LocalTime startTime) {
+        Appointment appointment = new Appointment();
+        appointment.setId(id);
+        appointment.setDoctor(doctor);
+        appointment.setAppointmentDate(date);
+        appointment.setStartTime(startTime);
+        appointment.setEndTime(startTime.plusMinutes(30));
+        appointment.setStatus(AppointmentStatus.AVAILABLE);
+        return appointment;
+    }
+
+    @Test
+    @DisplayName("Covers only today up to the slot horizon")
+    public void testCovers() {
+        assertTrue(availabilityIndex.covers(LocalDate.now()));
+        assertTrue(availabilityIndex.covers(LocalDate.now().plusDays(60)));
+        assertFalse(availabilityIndex.covers(LocalDate.now().minusDays(1)));
+        assertFalse(availabilityIndex.covers(LocalDate.now().plusDays(61)));
+    }
+
+    @Test
+    @DisplayName("Load a date once and answer from memory afterwards")
+    public void testLoadsDateOnce() {
+        // When: Reading the same date several times
+        List<DoctorAvailability> doctors = availabilityIndex.doctorsFreeOn(date);
+        List<AvailableSlot> slots = availabilityIndex.freeSlots(1L, date);
+        availabilityIndex.doctorsFreeOn(date);
+
+        // Then: One database query, doctor and slots taken from the bitset
+        verify(freeSlotReader, times(1)).findFreeSlotsOnDate(date);
+        assertEquals(1, doctors.size());
+        assertEquals(2L, doctors.get(0).getFreeSlots());
+        assertEquals("Doe", doctors.get(0).getLastName());
+        assertEquals(List.of(10L, 11L), slots.stream().map(AvailableSlot::getId).toList());
+        assertEquals(LocalTime.of(9, 30), slots.get(0).getEndTime());
+    }
+
+    @Test
+    @DisplayName("Booking and cancelling flip the slot's bit")
+    public void testBookAndCancel() {
+        // Given: The date is loaded
+        availabilityIndex.doctorsFreeOn(date);
+
+        // When: Booking the 9:00 slot
+        availabilityIndex.markBooked(slot(10L, LocalTime.of(9, 0)));
+
+        // Then: Only the 9:30 slot is free
+        assertEquals(List.of(11L), availabilityIndex.freeSlots(1L, date).stream().map(AvailableSlot::getId).toList());
+
+        // When: Booking the 9:30 slot as well
+        availabilityIndex.markBooked(slot(11L, LocalTime.of(9, 30)));
+
+        // Then: The doctor is no longer listed as available
+        assertTrue(availabilityIndex.doctorsFreeOn(date).isEmpty());
+
+        // When: Cancelling the 9:00 booking
+        availabilityIndex.markFree(slot(10L, LocalTime.of(9, 0)));
+
+        // Then: The slot is free again
+        assertEquals(List.of(10L), availabilityIndex.freeSlots(1L, date).stream().map(AvailableSlot::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Generated slots are added to loaded dates")
+    public void testSlotsCreated() {
+        // Given: The date is loaded
+        availabilityIndex.doctorsFreeOn(date);
+
+        // When: New slots are generated for the doctor
+        availabilityIndex.slotsCreated(List.of(doctor), List.of(slot(12L, LocalTime.of(18, 30))));
+
+        // Then: The new slot shows up as the last free slot
+        List<AvailableSlot> slots = availabilityIndex.freeSlots(1L, date);
+        assertEquals(3, slots.size());
+        assertEquals(12L, slots.get(2).getId());
+        assertEquals(LocalTime.of(19, 0), slots.get(2).getEndTime());
+    }
+
+    @Test
+    @DisplayName("Generated slots of a rolled-back transaction leave the doctor details untouched")
+    public void testSlotsCreatedRolledBack() {
+        // Given: The date is loaded and a transaction is active
+        availabilityIndex.doctorsFreeOn(date);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When: Slots are generated for the doctor under a changed name, and the transaction rolls back
+            doctor.setLastName("Smith");
+            availabilityIndex.slotsCreated(List.of(doctor), List.of(slot(12L, LocalTime.of(18, 30))));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then: Neither the slot nor the changed name reached the index
+        assertEquals(2, availabilityIndex.freeSlots(1L, date).size());
+        assertEquals("Doe", availabilityIndex.doctorsFreeOn(date).get(0).getLastName());
+    }
+
+    @Test
+    @DisplayName("A change committed while the date is loading is applied once the load finishes")
+    public void testUpdateDuringLoad() {
+        // Given: The 9:00 slot is booked while the date's query is running
+        when(freeSlotReader.findFreeSlotsOnDate(date)).thenAnswer(invocation -> {
+            availabilityIndex.markBooked(slot(10L, LocalTime.of(9, 0)));
+            return List.of(row(10L, 1L, LocalTime.of(9, 0)), row(11L, 1L, LocalTime.of(9, 30)));
+        });
+
+        // When: Reading the date
+        List<AvailableSlot> slots = availabilityIndex.freeSlots(1L, date);
+
+        // Then: The booking is not lost to the rows read before it
+        assertEquals(List.of(11L), slots.stream().map(AvailableSlot::getId).toList());
+    }
+
+    @Test
+    @DisplayName("A loaded date is read again once it is older than the reload interval")
+    public void testReloadAfterInterval() throws Exception {
+        // Given: The date is loaded and then expires
+        ReflectionTestUtils.setField(availabilityIndex, "reloadSeconds", 0L);
+        availabilityIndex.doctorsFreeOn(date);
+        Thread.sleep(1);
+
+        // When: The 9:00 slot was booked on another instance and the date is read again
+        when(freeSlotReader.findFreeSlotsOnDate(date)).thenReturn(List.of(row(11L, 1L, LocalTime.of(9, 30))));
+        List<AvailableSlot> slots = availabilityIndex.freeSlots(1L, date);
+
+        // Then: The booking made elsewhere is seen
+        assertEquals(List.of(11L), slots.stream().map(AvailableSlot::getId).toList());
+        verify(freeSlotReader, times(2)).findFreeSlotsOnDate(date);
+    }
+
+    @Test
+    @DisplayName("An evicted date is read again on its next use")
+    public void testEvict() {
+        // Given: The date is loaded
+        availabilityIndex.doctorsFreeOn(date);
+
+        // When: The date is evicted and read twice
+        availabilityIndex.evict(date);
+        availabilityIndex.doctorsFreeOn(date);
+        availabilityIndex.doctorsFreeOn(date);
+
+        // Then: It is loaded once more, and kept afterwards
+        verify(freeSlotReader, times(2)).findFreeSlotsOnDate(date);
+    }
+
+    @Test
+    @DisplayName("Editing a doctor replaces the doctor's details and reloads only the dates holding the doctor's slots")
+    public void testInvalidateDoctorUpdated() {
+        // Given: The date is loaded, and the next day, which has no slots of the doctor
+        LocalDate nextDay = date.plusDays(1);
+        when(freeSlotReader.findFreeSlotsOnDate(nextDay)).thenReturn(List.of(row(20L, 2L, LocalTime.of(9, 0))));
+        availabilityIndex.doctorsFreeOn(date);
+        availabilityIndex.doctorsFreeOn(nextDay);
+
+        // When: The doctor's name is changed and both dates are read again
+        doctor.setLastName("Smith");
+        when(freeSlotReader.findFreeSlotsOnDate(date)).thenReturn(List.of(
+                new FreeSlotRow(10L, 1L, "John", "Smith", "Cardiology", LocalTime.of(9, 0))));
+        availabilityIndex.invalidateDoctor(doctor);
+        List<DoctorAvailability> doctors = availabilityIndex.doctorsFreeOn(date);
+        availabilityIndex.doctorsFreeOn(nextDay);
+
+        // Then: Only the doctor's date is reloaded, showing the new name
+        assertEquals("Smith", doctors.get(0).getLastName());
+        verify(freeSlotReader, times(2)).findFreeSlotsOnDate(date);
+        verify(freeSlotReader, times(1)).findFreeSlotsOnDate(nextDay);
+    }
+
+    @Test
+    @DisplayName("Deleting a doctor removes the doctor's slots without reloading")
+    public void testInvalidateDoctorDeleted() {
+        // Given: The date is loaded
+        availabilityIndex.doctorsFreeOn(date);
+
+        // When: The doctor is deleted
+        availabilityIndex.invalidateDoctor(1L);
+
+        // Then: The doctor is gone and the date was not read again
+        assertTrue(availabilityIndex.doctorsFreeOn(date).isEmpty());
+        assertTrue(availabilityIndex.freeSlots(1L, date).isEmpty());
+        verify(freeSlotReader, times(1)).findFreeSlotsOnDate(date);
+    }
+
+    @Test
+    @DisplayName("Invalidating a doctor inside a transaction waits for the commit")
+    public void testInvalidateDoctorAfterCommit() {
+        // Given: The date is loaded and a transaction is active
+        availabilityIndex.doctorsFreeOn(date);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When: The doctor is invalidated and the date read again before the commit
+            availabilityIndex.invalidateDoctor(doctor);
+            availabilityIndex.doctorsFreeOn(date);
+
+            // Then: The pre-commit state was not reloaded
+            verify(freeSlotReader, times(1)).findFreeSlotsOnDate(date);
+
+            // When: The transaction commits and the date is read again
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            availabilityIndex.doctorsFreeOn(date);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then: The committed state is read from the database
+        verify(freeSlotReader, times(2)).findFreeSlotsOnDate(date);
+    }
+
+    private void givenSeveralDoctors() {
+        // Doctor 2 (cardiology) is free at 9:30 and 10:00, doctor 3 (neurology) at 9:00; doctor 2 again the next day
+        List<FreeSlotRow> rows = List.of(row(10L, 1L, LocalTime.of(9, 0)), row(11L, 1L, LocalTime.of(9, 30)),
+                row(20L, 2L, LocalTime.of(9, 30)), row(21L, 2L, LocalTime.of(10, 0)),
+                row(30L, 3L, LocalTime.of(9, 0), "Neurology"));
+        when(freeSlotReader.findFreeSlotsOnDate(date)).thenReturn(rows);
+        List<FreeSlotRow> nextDay = List.of(row(22L, 2L, LocalTime.of(9, 0)));
+        when(freeSlotReader.findFreeSlotsOnDate(date.plusDays(1))).thenReturn(nextDay);
+    }
+
+    @Test
+    @DisplayName("Earliest free slots are merged across doctors in time order")
+    public void testEarliestFree() {
+        givenSeveralDoctors();
+
+        // When: Searching cardiology slots
+        List<NextAvailableSlot> slots = availabilityIndex.earliestFree("cardiology", LocalDate.now(), null, null, 10);
+
+        // Then: Both cardiologists' slots, earliest first and by doctor on a tie; the neurologist is skipped
+        assertEquals(List.of(10L, 11L, 20L, 21L, 22L), slots.stream().map(NextAvailableSlot::getId).toList());
+        assertEquals(2L, slots.get(2).getDoctorId());
+        assertEquals(date.plusDays(1), slots.get(4).getAppointmentDate());
+        assertEquals(LocalTime.of(10, 30), slots.get(3).getEndTime());
+    }
+
+    @Test
+    @DisplayName("Earliest free search stops once the limit is reached")
+    public void testEarliestFreeStopsAtLimit() {
+        givenSeveralDoctors();
+
+        // When: Asking for two slots
+        List<NextAvailableSlot> slots = availabilityIndex.earliestFree("Cardiology", LocalDate.now(), null, null, 2);
+
+        // Then: Both come from the first day, and later days are never loaded
+        assertEquals(List.of(10L, 11L), slots.stream().map(NextAvailableSlot::getId).toList());
+        verify(freeSlotReader, never()).findFreeSlotsOnDate(date.plusDays(1));
+    }
+
+    @Test
+    @DisplayName("Earliest free search keeps to the time-of-day window")
+    public void testEarliestFreeWithinWindow() {
+        givenSeveralDoctors();
+
+        // When: Searching slots starting at 9:30 or later and finished by 10:30
+        List<NextAvailableSlot> slots = availabilityIndex.earliestFree("Cardiology", LocalDate.now(), LocalTime.of(9, 30), LocalTime.of(10, 30), 10);
+
+        // Then: The 9:00 slots on both days are left out
+        assertEquals(List.of(11L, 20L, 21L), slots.stream().map(NextAvailableSlot::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Earliest free search starts at the given day")
+    public void testEarliestFreeFromDay() {
+        givenSeveralDoctors();
+
+        // When: Searching from the day after the date
+        List<NextAvailableSlot> slots = availabilityIndex.earliestFree("Cardiology", date.plusDays(1), null, null, 10);
+
+        // Then: Only the later day is loaded and searched
+        assertEquals(List.of(22L), slots.stream().map(NextAvailableSlot::getId).toList());
+        verify(freeSlotReader, never()).findFreeSlotsOnDate(date);
+    }
+}
@@ -0,0 +1,177 @@
+package org.user.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.user.app.entity.Appointment;
+import org.user.app.entity.AppointmentStatus;
+import org.user.app.entity.Doctor;
+import org.user.app.entity.Patient;
+import org.user.app.exceptions.SlotAlreadyBookedException;
+import org.user.app.repository.AppointmentRepository;
+import org.user.app.repository.DoctorRepository;
+import org.user.app.repository.PatientRepository;
+import org.user.app.service.AppointmentMetrics;
+import org.user.app.service.AppointmentServiceImpl;
+import org.user.app.service.AvailabilityIndex;
+import org.user.app.service.PatientServiceImpl;
+import org.user.app.service.SlotGenerator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Races several patients for one slot through the real conditional UPDATE on an in-memory H2 schema.
+ * Not transactional itself: every booking commits on its own thread, as it does in the application.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@Import({AppointmentServiceImpl.class, AppointmentMetrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BookingRaceTest {
+
+    private static final int PATIENTS = 8;
+
+    @TestConfiguration
+    static class Meters {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private AppointmentServiceImpl appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private PatientServiceImpl patientServiceImpl;
+
+    @MockBean
+    private SlotGenerator slotGenerator;
+
+    @MockBean
+    private AvailabilityIndex availabilityIndex;
+
+    private Long slotId;
+
+    private final List<Long> patientIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        Doctor doctor = new Doctor();
+        doctor.setFirstName("John");
+        doctor.setLastName("Doe");
+        doctor.setAge(45);
+        doctor.setGender("Male");
+        doctor.setEmail("race.doctor@example.com");
+        doctor.setPhoneNo("1234567890");
+        doctor.setPassword("Passw0rd!");
+        doctor.setSpecialization("Cardiology");
+        doctor = doctorRepository.save(doctor);
+
+        Appointment slot = new Appointment();
+        slot.setDoctor(doctor);
+        slot.setAppointmentDate(LocalDate.now().plusDays(1));
+        slot.setStartTime(LocalTime.of(9, 0));
+        slot.setEndTime(LocalTime.of(9, 30));
+        slot.setStatus(AppointmentStatus.AVAILABLE);
+        slotId = appointmentRepository.save(slot).getId();
+
+        for (int i = 0; i < PATIENTS; i++) {
+            Patient patient = new Patient();
+            patient.setFirstName("Patient" + i);
+            patient.setLastName("Race");
+            patient.setAge(30);
+            patient.setGender("Female");
+            patient.setEmail("race.patient" + i + "@example.com");
+            patient.setPassword("Passw0rd!");
+            patientIds.add(patientRepository.save(patient).getId());
+        }
+    }
+
+    @AfterEach
+    public void cleanup() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Concurrent bookings of one slot - Exactly one wins, the rest get SlotAlreadyBookedException")
+    public void testConcurrentBookingsOfOneSlot() throws Exception {
+        // Given: One free slot and one thread per patient, released together
+        ExecutorService executor = Executors.newFixedThreadPool(PATIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Appointment>> bookings = new ArrayList<>();
+        for (Long patientId : patientIds) {
+            bookings.add(executor.submit(() -> {
+                start.await();
+                return appointmentService.bookAppointment(patientId, slotId, "Chest pain");
+            }));
+        }
+
+        // When: Every patient books the slot at once
+        start.countDown();
+        int booked = 0;
+        int rejected = 0;
+        try {
+            for (Future<Appointment> booking : bookings) {
+                try {
+                    booking.get(10, TimeUnit.SECONDS);
+                    booked++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(SlotAlreadyBookedException.class, e.getCause());
+                    rejected++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then: One booking went through, the others were rejected, and the slot belongs to the winner
+        assertEquals(1, booked);
+        assertEquals(PATIENTS - 1, rejected);
+        assertEquals(PATIENTS - 1, meterRegistry.get("appointments.booking.conflicts").counter().count());
+        Appointment slot = appointmentRepository.findWithDoctorAndPatientById(slotId).orElseThrow();
+        assertEquals(AppointmentStatus.BOOKED, slot.getStatus());
+        assertTrue(patientIds.contains(slot.getPatient().getId()));
+    }
+}
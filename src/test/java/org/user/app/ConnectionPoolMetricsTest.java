@@ -0,0 +1,67 @@
+package org.user.app;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.user.app.config.ConnectionPoolMetrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolMetricsTest {
+
+    private HikariDataSource dataSource;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        // A small in-memory pool registered as the only Hikari pool
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPoolName("primary");
+        dataSource.setMaximumPoolSize(4);
+
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("dataSource", dataSource);
+
+        meterRegistry = new SimpleMeterRegistry();
+        new ConnectionPoolMetrics(beanFactory.getBeanProvider(HikariDataSource.class)).bindTo(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    private double utilization() {
+        return meterRegistry.get("hikaricp.connections.utilization").tag("pool", "primary").gauge().value();
+    }
+
+    @Test
+    @DisplayName("Utilization is zero before the pool is started")
+    public void testUtilizationBeforePoolStart() {
+        assertEquals(0.0, utilization());
+    }
+
+    @Test
+    @DisplayName("Utilization is the share of the maximum pool size checked out")
+    public void testUtilizationTracksActiveConnections() throws Exception {
+        // Given: One of four connections checked out
+        try (Connection connection = dataSource.getConnection()) {
+            // Then: A quarter of the pool is in use
+            assertEquals(0.25, utilization());
+        }
+
+        // When: It is returned, Then: the pool is idle again
+        assertEquals(0.0, utilization());
+    }
+}
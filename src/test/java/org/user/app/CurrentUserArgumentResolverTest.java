@@ -0,0 +1,178 @@
+package org.user.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.user.app.config.CurrentUser;
+import org.user.app.config.CurrentUserArgumentResolver;
+import org.user.app.entity.Doctor;
+import org.user.app.entity.Patient;
+import org.user.app.repository.AdminRepository;
+import org.user.app.repository.DoctorRepository;
+import org.user.app.repository.PatientRepository;
+
+public class CurrentUserArgumentResolverTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private AdminRepository adminRepository;
+
+    @InjectMocks
+    private CurrentUserArgumentResolver resolver;
+
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        request = new MockHttpServletRequest();
+    }
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Patient is looked up once and then served from the session")
+    public void testPatientResolvedOncePerSession() {
+        // Given
+        login("p@example.com", "ROLE_PATIENT");
+        Patient patient = new Patient();
+        patient.setId(5L);
+        patient.setFirstName("Asha");
+        patient.setLastName("Rao");
+        when(patientRepository.findByEmail("p@example.com")).thenReturn(patient);
+
+        // When
+        CurrentUser first = resolve();
+        CurrentUser second = resolve();
+
+        // Then
+        assertEquals(5L, first.getId());
+        assertEquals("PATIENT", first.getRole());
+        assertEquals("Asha", first.getFirstName());
+        assertSame(first, second);
+        verify(patientRepository, times(1)).findByEmail("p@example.com");
+        verifyNoInteractions(doctorRepository, adminRepository);
+    }
+
+    @Test
+    @DisplayName("A session carried over to another login is resolved again")
+    public void testSessionOfAnotherUserIsReplaced() {
+        // Given: The session still holds a patient from an earlier login
+        login("p@example.com", "ROLE_PATIENT");
+        Patient patient = new Patient();
+        patient.setId(5L);
+        when(patientRepository.findByEmail("p@example.com")).thenReturn(patient);
+        resolve();
+
+        login("d@example.com", "ROLE_DOCTOR");
+        Doctor doctor = new Doctor();
+        doctor.setId(9L);
+        when(doctorRepository.findByEmail("d@example.com")).thenReturn(doctor);
+
+        // When
+        CurrentUser user = resolve();
+
+        // Then
+        assertEquals(9L, user.getId());
+        assertEquals("DOCTOR", user.getRole());
+    }
+
+    @Test
+    @DisplayName("An account edited after it was cached is resolved again")
+    public void testEvictedUserIsReloaded() {
+        // Given: The patient is cached in the session, then renamed by an admin
+        login("p@example.com", "ROLE_PATIENT");
+        Patient patient = new Patient();
+        patient.setId(5L);
+        patient.setFirstName("Asha");
+        when(patientRepository.findByEmail("p@example.com")).thenReturn(patient);
+        resolve();
+
+        Patient renamed = new Patient();
+        renamed.setId(5L);
+        renamed.setFirstName("Ashwini");
+        when(patientRepository.findByEmail("p@example.com")).thenReturn(renamed);
+        resolver.evict("PATIENT", 5L);
+
+        // When
+        CurrentUser refreshed = resolve();
+        CurrentUser cached = resolve();
+
+        // Then: The new name is loaded once and cached again
+        assertEquals("Ashwini", refreshed.getFirstName());
+        assertSame(refreshed, cached);
+        verify(patientRepository, times(2)).findByEmail("p@example.com");
+    }
+
+    @Test
+    @DisplayName("Evicting another account keeps the cached user")
+    public void testEvictOtherUser() {
+        // Given
+        login("p@example.com", "ROLE_PATIENT");
+        Patient patient = new Patient();
+        patient.setId(5L);
+        when(patientRepository.findByEmail("p@example.com")).thenReturn(patient);
+        CurrentUser first = resolve();
+
+        // When
+        resolver.evict("PATIENT", 6L);
+        resolver.evict("DOCTOR", 5L);
+
+        // Then
+        assertSame(first, resolve());
+        verify(patientRepository, times(1)).findByEmail("p@example.com");
+    }
+
+    @Test
+    @DisplayName("A logged-in account that no longer exists is rejected")
+    public void testDeletedAccount() {
+        // Given: The session's email matches no doctor anymore
+        login("d@example.com", "ROLE_DOCTOR");
+        when(doctorRepository.findByEmail("d@example.com")).thenReturn(null);
+
+        // When & Then
+        assertThrows(UsernameNotFoundException.class, this::resolve);
+        assertNull(request.getSession().getAttribute(CurrentUser.class.getName()));
+    }
+
+    @Test
+    @DisplayName("No current user without an authenticated principal")
+    public void testAnonymousRequest() {
+        // When & Then
+        assertThrows(AuthenticationCredentialsNotFoundException.class, this::resolve);
+        verifyNoInteractions(patientRepository, doctorRepository, adminRepository);
+    }
+
+    private void login(String email, String role) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of(new SimpleGrantedAuthority(role))));
+    }
+
+    private CurrentUser resolve() {
+        return resolver.resolveArgument(null, null, new ServletWebRequest(request), null);
+    }
+}
@@ -0,0 +1,84 @@
+package org.user.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.user.app.config.CredentialLookup;
+import org.user.app.config.CustomUserDetailsService;
+import org.user.app.dto.Credential;
+
+public class CustomUserDetailsServiceTest {
+
+    @Mock
+    private CredentialLookup credentialLookup;
+
+    @InjectMocks
+    private CustomUserDetailsService customUserDetailsService;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    @DisplayName("Load a doctor with a single credential lookup")
+    public void testLoadDoctor() {
+        // Given
+        Credential credential = credential("doc@example.com", "hash", "DOCTOR");
+        when(credentialLookup.findByEmail("doc@example.com")).thenReturn(credential);
+
+        // When
+        UserDetails user = customUserDetailsService.loadUserByUsername("doc@example.com");
+
+        // Then
+        assertEquals("doc@example.com", user.getUsername());
+        assertEquals("hash", user.getPassword());
+        assertTrue(user.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_DOCTOR")));
+        verify(credentialLookup, times(1)).findByEmail("doc@example.com");
+    }
+
+    @Test
+    @DisplayName("Erasing the password of a loaded user does not affect the next login")
+    public void testLoadReturnsFreshUser() {
+        // Given: The same cached credentials are returned twice
+        Credential credential = credential("p@example.com", "hash", "PATIENT");
+        when(credentialLookup.findByEmail("p@example.com")).thenReturn(credential);
+        User first = (User) customUserDetailsService.loadUserByUsername("p@example.com");
+
+        // When: Spring Security erases the credentials after the first login
+        first.eraseCredentials();
+        UserDetails second = customUserDetailsService.loadUserByUsername("p@example.com");
+
+        // Then
+        assertEquals("hash", second.getPassword());
+    }
+
+    @Test
+    @DisplayName("Unknown email is rejected")
+    public void testLoadUnknownEmail() {
+        // Given
+        when(credentialLookup.findByEmail("nobody@example.com")).thenReturn(null);
+
+        // When & Then
+        assertThrows(UsernameNotFoundException.class,
+                () -> customUserDetailsService.loadUserByUsername("nobody@example.com"));
+    }
+
+    private static Credential credential(String email, String password, String role) {
+        Credential credential = mock(Credential.class);
+        when(credential.getEmail()).thenReturn(email);
+        when(credential.getPassword()).thenReturn(password);
+        when(credential.getRole()).thenReturn(role);
+        return credential;
+    }
+}
@@ -3,23 +3,37 @@ package org.user.app;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.user.app.config.CredentialLookup;
+import org.user.app.dto.ListPage;
 import org.user.app.entity.Appointment;
+import org.user.app.entity.AppointmentStatus;
 import org.user.app.entity.Doctor;
 import org.user.app.entity.Patient;
+import org.user.app.exceptions.DoctorNotFoundException;
 import org.user.app.repository.DoctorRepository;
 import org.user.app.service.AppointmentServiceImpl;
+import org.user.app.service.AvailabilityIndex;
 import org.user.app.service.DoctorServiceImpl;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -40,9 +54,16 @@ public class DoctorServiceImplTest {
     @Mock
     private AppointmentServiceImpl appointmentServiceImpl;
 
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    @Mock
+    private CredentialLookup credentialLookup;
+
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(doctorServiceImpl, "horizonDays", 60);
     }
 
     @Test
@@ -61,8 +82,7 @@ public class DoctorServiceImplTest {
                 .appointmentDate(LocalDate.now())
                 .startTime(LocalTime.of(9, 0))
                 .endTime(LocalTime.of(9, 30))
-                .isAvailable(true)
-                .status("AVAILABLE")
+                .status(AppointmentStatus.AVAILABLE)
                 .build();
         mockAppointments.add(mockAppointment);
 
@@ -80,7 +100,7 @@ public class DoctorServiceImplTest {
         assertNotNull(result);
         assertEquals(savedDoctor.getId(), result.getId());
         verify(doctorRepository, times(1)).save(doctor);
-        verify(appointmentServiceImpl, times(1)).createHalfHourAppointmentsForDoctor(savedDoctor, LocalDate.now(), LocalDate.now().with(TemporalAdjusters.lastDayOfMonth()));
+        verify(appointmentServiceImpl, times(1)).createHalfHourAppointmentsForDoctor(savedDoctor, LocalDate.now(), LocalDate.now().plusDays(60));
     }
     
     @Test
@@ -107,12 +127,13 @@ public class DoctorServiceImplTest {
         patients.add(new Patient(1L, "John Doe", null, 0, null, null, null, null, null, null));
         patients.add(new Patient(2L, "Jane Smith", null, 0, null, null, null, null, null, null));
         
-        // Create a mock Doctor object
+        // Create a mock Doctor object loaded together with its patients
         Doctor doctor = mock(Doctor.class);
         when(doctor.getPatients()).thenReturn(patients);
+        when(doctorRepository.findWithPatientsById(1L)).thenReturn(Optional.of(doctor));
 
         // When
-        Set<Patient> result = doctorServiceImpl.findPatients(doctor);
+        Set<Patient> result = doctorServiceImpl.findPatients(1L);
 
         // Then
         assertNotNull(result);
@@ -120,6 +141,17 @@ public class DoctorServiceImplTest {
         assertTrue(result.stream().anyMatch(p -> p.getFirstName().equals("John Doe")));
         assertTrue(result.stream().anyMatch(p -> p.getFirstName().equals("Jane Smith")));
         verify(doctor, times(1)).getPatients();
+        verify(doctorRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Find patients of a doctor that does not exist")
+    public void testFindPatients_DoctorNotFound() {
+        // Given
+        when(doctorRepository.findWithPatientsById(1L)).thenReturn(Optional.empty());
+
+        // When / Then
+        assertThrows(DoctorNotFoundException.class, () -> doctorServiceImpl.findPatients(1L));
     }
 
     @Test
@@ -144,6 +176,9 @@ public class DoctorServiceImplTest {
     public void testDeleteDoctorSuccess() {
         // Given
         Long doctorId = 1L;
+        Doctor doctor = new Doctor();
+        doctor.setEmail("doc@example.com");
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
         doNothing().when(doctorRepository).deleteById(doctorId);
 
         // When
@@ -151,6 +186,8 @@ public class DoctorServiceImplTest {
 
         // Then
         verify(doctorRepository, times(1)).deleteById(doctorId);
+        verify(credentialLookup).evict("doc@example.com");
+        verify(availabilityIndex).invalidateDoctor(doctorId);
     }
 
     @Test
@@ -169,15 +206,45 @@ public class DoctorServiceImplTest {
         verify(doctorRepository, times(1)).findAll();
     }
 
+    @Test
+    @DisplayName("Go back a page of doctors from the cursor of the current page")
+    public void testGetDoctorsPreviousPage() {
+        // Given: A doctor list sorted by specialization, descending
+        Doctor doctor = new Doctor();
+        doctor.setId(4L);
+        doctor.setSpecialization("Cardiology");
+        when(doctorRepository.findBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenReturn(Window.from(List.of(doctor),
+                        i -> ScrollPosition.backward(Map.of("specialization", "Cardiology", "Id", 4L)), false));
+        String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString("9:Neurology".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        ListPage<Doctor> page = doctorServiceImpl.getDoctorsPage("specialization", "desc", 10, null, cursor);
+
+        // Then: The read seeks backward from the cursor and there is nothing before this page
+        ArgumentCaptor<ScrollPosition> position = ArgumentCaptor.forClass(ScrollPosition.class);
+        verify(doctorRepository).findBy(position.capture(),
+                eq(Sort.by(Sort.Direction.DESC, "specialization").and(Sort.by(Sort.Direction.DESC, "Id"))), eq(Limit.of(10)));
+        KeysetScrollPosition before = (KeysetScrollPosition) position.getValue();
+        assertTrue(before.scrollsBackward());
+        assertEquals(Map.of("specialization", "Neurology", "Id", 9L), before.getKeys());
+        assertEquals(List.of(doctor), page.getContent());
+        assertNull(page.getPreviousCursor());
+        assertNotNull(page.getNextCursor());
+    }
+
     @Test
     @DisplayName("Update doctor by ID")
     public void testUpdateDoctorSuccess() {
         // Given
         Long doctorId = 1L;
+        Doctor existingDoctor = new Doctor();
+        existingDoctor.setEmail("old@example.com");
         Doctor updatedDoctor = new Doctor();
+        updatedDoctor.setEmail("new@example.com");
         updatedDoctor.setPassword("newPassword");
 
-        when(doctorRepository.existsById(doctorId)).thenReturn(true);
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(existingDoctor));
         when(doctorRepository.save(any(Doctor.class))).thenReturn(updatedDoctor);
         when(passwordEncoder.encode("newPassword")).thenReturn("encryptedNewPassword");
 
@@ -188,5 +255,19 @@ public class DoctorServiceImplTest {
         assertNotNull(result);
         assertEquals("encryptedNewPassword", result.getPassword());
         verify(doctorRepository, times(1)).save(updatedDoctor);
+        verify(credentialLookup).evict("old@example.com");
+        verify(credentialLookup).evict("new@example.com");
+        verify(availabilityIndex).invalidateDoctor(updatedDoctor);
+    }
+
+    @Test
+    @DisplayName("Update of an unknown doctor is rejected")
+    public void testUpdateDoctorNotFound() {
+        // Given
+        when(doctorRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(DoctorNotFoundException.class, () -> doctorServiceImpl.updateDoctor(1L, new Doctor()));
+        verify(doctorRepository, never()).save(any(Doctor.class));
     }
 }
\ No newline at end of file
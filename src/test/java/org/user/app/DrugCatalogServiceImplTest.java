@@ -0,0 +1,138 @@
+package org.user.app;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.user.app.dto.DrugSuggestion;
+import org.user.app.entity.Drug;
+import org.user.app.repository.DrugRepository;
+import org.user.app.repository.MedicationRepository;
+import org.user.app.service.DrugCatalogServiceImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DrugCatalogServiceImplTest {
+
+    @InjectMocks
+    private DrugCatalogServiceImpl drugCatalogService;
+
+    @Mock
+    private DrugRepository drugRepository;
+
+    @Mock
+    private MedicationRepository medicationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(drugCatalogService, "importBatchSize", 2);
+
+        // Given: A catalog of a few drugs, in no particular order
+        when(drugRepository.findSuggestions()).thenReturn(List.of(
+                new DrugSuggestion(3L, "Amoxicillin 500 mg capsule"),
+                new DrugSuggestion(1L, "Amlodipine 5 mg tablet"),
+                new DrugSuggestion(2L, "Acetylsalicylic acid 75 mg tablet"),
+                new DrugSuggestion(4L, "Amoxicillin 250 mg capsule")));
+    }
+
+    private List<String> names(List<DrugSuggestion> suggestions) {
+        return suggestions.stream().map(DrugSuggestion::getName).toList();
+    }
+
+    @Test
+    @DisplayName("Suggestions match the start of the name, ignoring case, in name order")
+    public void testSuggestByNamePrefix() {
+        assertEquals(List.of("Amlodipine 5 mg tablet", "Amoxicillin 250 mg capsule", "Amoxicillin 500 mg capsule"),
+                names(drugCatalogService.suggest("AM", 10)));
+        assertEquals(List.of(4L, 3L), drugCatalogService.suggest("amox", 10).stream().map(DrugSuggestion::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Suggestions also match the start of any later word")
+    public void testSuggestByWordPrefix() {
+        assertEquals(List.of("Amoxicillin 250 mg capsule", "Amoxicillin 500 mg capsule"), names(drugCatalogService.suggest("caps", 10)));
+        assertEquals(List.of("Acetylsalicylic acid 75 mg tablet"), names(drugCatalogService.suggest("acid", 10)));
+        // "mg" appears once per name, so each entry is suggested once
+        assertEquals(4, drugCatalogService.suggest("mg", 10).size());
+    }
+
+    @Test
+    @DisplayName("Suggestions are capped by the limit and empty for blank or unknown text")
+    public void testSuggestLimits() {
+        assertEquals(List.of("Acetylsalicylic acid 75 mg tablet", "Amlodipine 5 mg tablet"), names(drugCatalogService.suggest("a", 2)));
+        assertTrue(drugCatalogService.suggest("  ", 10).isEmpty());
+        assertTrue(drugCatalogService.suggest("zz", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Exact names resolve to their catalog ID; prefixes and unknown names do not")
+    public void testFindId() {
+        assertEquals(Optional.of(3L), drugCatalogService.findId(" amoxicillin 500 MG capsule "));
+        assertEquals(Optional.empty(), drugCatalogService.findId("Amoxicillin"));
+        assertEquals(Optional.empty(), drugCatalogService.findId(null));
+    }
+
+    @Test
+    @DisplayName("The index is built once and served from memory")
+    public void testIndexBuiltOnce() {
+        drugCatalogService.suggest("am", 10);
+        drugCatalogService.suggest("ac", 10);
+        drugCatalogService.findId("Amlodipine 5 mg tablet");
+
+        verify(drugRepository, times(1)).findSuggestions();
+    }
+
+    @Test
+    @DisplayName("Importing skips comments, blank lines and names already known, and saves in batches")
+    @SuppressWarnings("unchecked")
+    public void testImportCatalog() throws Exception {
+        // Given: One name already in the catalog, one repeated in the file and three new ones
+        when(drugRepository.findAllNames()).thenReturn(List.of("Amlodipine 5 mg tablet"));
+        String file = "# formulary\n\nAMLODIPINE 5 mg tablet\nCetirizine 10 mg tablet\n  Ibuprofen 200 mg tablet \n"
+                + "cetirizine 10 mg tablet\nZolpidem 10 mg tablet\n";
+
+        // When: Importing the file
+        int added = drugCatalogService.importCatalog(new ByteArrayResource(file.getBytes(StandardCharsets.UTF_8)));
+
+        // Then: The three new names are saved, two per batch, existing medications are linked and the index reloaded
+        assertEquals(3, added);
+        ArgumentCaptor<List<Drug>> batches = ArgumentCaptor.forClass(List.class);
+        verify(drugRepository, times(2)).saveAll(batches.capture());
+        assertEquals(List.of("Cetirizine 10 mg tablet", "Ibuprofen 200 mg tablet", "Zolpidem 10 mg tablet"),
+                batches.getAllValues().stream().flatMap(List::stream).map(Drug::getName).toList());
+        verify(medicationRepository, times(1)).linkToCatalog();
+        verify(drugRepository, times(1)).findSuggestions();
+    }
+
+    @Test
+    @DisplayName("Importing a file with no new names does not touch existing medications")
+    public void testImportCatalogNothingNew() throws Exception {
+        // Given: Every name in the file is already in the catalog
+        when(drugRepository.findAllNames()).thenReturn(List.of("Amlodipine 5 mg tablet"));
+        String file = "Amlodipine 5 mg tablet\n";
+
+        // When: Importing the file, as on every restart
+        int added = drugCatalogService.importCatalog(new ByteArrayResource(file.getBytes(StandardCharsets.UTF_8)));
+
+        // Then: Nothing is saved or linked, and the index is still built
+        assertEquals(0, added);
+        verify(drugRepository, never()).saveAll(any());
+        verify(medicationRepository, never()).linkToCatalog();
+        verify(drugRepository, times(1)).findSuggestions();
+    }
+}
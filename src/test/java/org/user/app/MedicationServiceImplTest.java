@@ -6,15 +6,20 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.user.app.entity.Appointment;
+import org.user.app.entity.Drug;
 import org.user.app.entity.Medication;
 import org.user.app.exceptions.AppointmentNotFoundException;
 import org.user.app.exceptions.MedicationNotFoundException;
 import org.user.app.repository.AppointmentRepository;
+import org.user.app.repository.DrugRepository;
 import org.user.app.repository.MedicationRepository;
+import org.user.app.service.DrugCatalogService;
 import org.user.app.service.MedicationServiceImpl;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,6 +35,12 @@ public class MedicationServiceImplTest {
     @Mock
     private AppointmentRepository appointmentRepository;
 
+    @Mock
+    private DrugRepository drugRepository;
+
+    @Mock
+    private DrugCatalogService drugCatalogService;
+
     private Medication medication;
     private Appointment appointment;
 
@@ -107,22 +118,23 @@ public class MedicationServiceImplTest {
 
     @Test
     void getMedications_Success() {
-        // Given: Mock the repositories to return an appointment and a list of medications
-        when(appointmentRepository.findById(1L)).thenReturn(Optional.of(appointment));
-        when(medicationRepository.findByAppointmentId(1L)).thenReturn(List.of(medication));
+        // Given: Mock the repository to return the appointment loaded with its medications
+        appointment.setMedications(new HashSet<>(List.of(medication)));
+        when(appointmentRepository.findWithMedicationsById(1L)).thenReturn(Optional.of(appointment));
 
         // When: Call the service method to retrieve medications for the appointment
         var medications = medicationServiceImpl.getMedications(1L);
 
-        // Then: Verify that the list of medications is not empty and that the repository's findByAppointmentId method was called once
-        assertFalse(medications.isEmpty());
-        verify(medicationRepository, times(1)).findByAppointmentId(1L);
+        // Then: Verify that the medications come from the single appointment query, without a separate existence check
+        assertEquals(List.of(medication), medications);
+        verify(appointmentRepository, never()).findById(1L);
+        verify(medicationRepository, never()).findByAppointmentId(1L);
     }
 
     @Test
     void getMedications_AppointmentNotFound() {
         // Given: Mock the repository to return an empty result for a non-existent appointment
-        when(appointmentRepository.findById(1L)).thenReturn(Optional.empty());
+        when(appointmentRepository.findWithMedicationsById(1L)).thenReturn(Optional.empty());
 
         // When / Then: Ensure that an AppointmentNotFoundException is thrown
         Exception exception = assertThrows(AppointmentNotFoundException.class, () -> {
@@ -135,10 +147,70 @@ public class MedicationServiceImplTest {
         verify(medicationRepository, times(0)).findByAppointmentId(1L);
     }
 
+    @Test
+    void prescribe_Success() {
+        // Given: Two new medications for an existing appointment
+        Medication first = new Medication();
+        Medication second = new Medication();
+        List<Medication> medications = List.of(first, second);
+        when(appointmentRepository.existsById(1L)).thenReturn(true);
+        when(appointmentRepository.getReferenceById(1L)).thenReturn(appointment);
+        when(medicationRepository.saveAll(medications)).thenReturn(medications);
+
+        // When: Prescribing both at once
+        List<Medication> saved = medicationServiceImpl.prescribe(1L, medications);
+
+        // Then: Both are linked to the appointment and saved together, without loading the appointment
+        assertEquals(2, saved.size());
+        assertSame(appointment, first.getAppointment());
+        assertSame(appointment, second.getAppointment());
+        verify(medicationRepository, times(1)).saveAll(medications);
+        verify(appointmentRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void prescribe_LinksCatalogNames() {
+        // Given: One medication named as in the catalog (in other case) and one free-text medication
+        Medication catalogued = new Medication();
+        catalogued.setName("amoxicillin 500 mg capsule");
+        Medication freeText = new Medication();
+        freeText.setName("Herbal tea");
+        List<Medication> medications = List.of(catalogued, freeText);
+        Drug drug = new Drug(7L, "Amoxicillin 500 mg capsule");
+        when(appointmentRepository.existsById(1L)).thenReturn(true);
+        when(appointmentRepository.getReferenceById(1L)).thenReturn(appointment);
+        when(drugCatalogService.findId("amoxicillin 500 mg capsule")).thenReturn(Optional.of(7L));
+        when(drugRepository.findAllById(Set.of(7L))).thenReturn(List.of(drug));
+        when(medicationRepository.saveAll(medications)).thenReturn(medications);
+
+        // When: Prescribing both
+        medicationServiceImpl.prescribe(1L, medications);
+
+        // Then: The catalogued one references the entry instead of storing its name, the other keeps its text
+        assertSame(drug, catalogued.getDrug());
+        assertEquals("Amoxicillin 500 mg capsule", catalogued.getName());
+        assertNull(freeText.getDrug());
+        assertEquals("Herbal tea", freeText.getName());
+        verify(drugRepository, times(1)).findAllById(Set.of(7L));
+    }
+
+    @Test
+    void prescribe_AppointmentNotFound() {
+        // Given: The appointment does not exist
+        when(appointmentRepository.existsById(1L)).thenReturn(false);
+
+        // When / Then: Ensure that an AppointmentNotFoundException is thrown and nothing is saved
+        Exception exception = assertThrows(AppointmentNotFoundException.class, () -> {
+            medicationServiceImpl.prescribe(1L, List.of(new Medication()));
+        });
+        assertEquals("Appointment with ID 1 not found", exception.getMessage());
+        verify(medicationRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void getMedicationById_Success() {
         // Given: Mock the repository to return the medication when queried by ID
-        when(medicationRepository.findById(1L)).thenReturn(Optional.of(medication));
+        when(medicationRepository.findWithAppointmentById(1L)).thenReturn(Optional.of(medication));
 
         // When: Call the service method to retrieve the medication by ID
         var retrievedMedication = medicationServiceImpl.getMedicationById(1L);
@@ -151,7 +223,7 @@ public class MedicationServiceImplTest {
     @Test
     void getMedicationById_NotFound() {
         // Given: Mock the repository to return an empty result for a non-existent medication
-        when(medicationRepository.findById(1L)).thenReturn(Optional.empty());
+        when(medicationRepository.findWithAppointmentById(1L)).thenReturn(Optional.empty());
 
         // When / Then: Ensure that a MedicationNotFoundException is thrown
         Exception exception = assertThrows(MedicationNotFoundException.class, () -> {
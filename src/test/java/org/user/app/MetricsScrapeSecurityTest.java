@@ -0,0 +1,75 @@
+package org.user.app;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Checks that a Prometheus scraper can reach /actuator/prometheus with the scrape account over HTTP Basic,
+ * while other actuator endpoints stay behind the admin form login. Runs the whole application on an
+ * in-memory H2 schema generated from the entity mappings.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:scrape;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "medication.catalog.location=",
+        "slots.horizon.enabled=false",
+        "metrics.scrape.username=scraper",
+        "metrics.scrape.password=scrape-secret"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsScrapeSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("The scrape account reads the Prometheus endpoint over HTTP Basic")
+    public void testScrapeWithCredentials() throws Exception {
+        mockMvc.perform(basic(get("/actuator/prometheus"), "scraper", "scrape-secret"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("hikaricp_connections")));
+    }
+
+    @Test
+    @DisplayName("Scraping without credentials or with a wrong password is refused, not redirected to the login page")
+    public void testScrapeWithoutCredentials() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(basic(get("/actuator/prometheus"), "scraper", "wrong"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("The scrape account does not open the other actuator endpoints")
+    public void testScrapeAccountLimitedToPrometheus() throws Exception {
+        mockMvc.perform(basic(get("/actuator/metrics"), "scraper", "scrape-secret"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrlPattern("**/login"));
+    }
+
+    // Sets the Authorization header the way a scraper configured with basic_auth sends it
+    private static MockHttpServletRequestBuilder basic(MockHttpServletRequestBuilder request, String username, String password) {
+        String token = Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        return request.header(HttpHeaders.AUTHORIZATION, "Basic " + token);
+    }
+}
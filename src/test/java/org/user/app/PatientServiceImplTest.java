@@ -6,10 +6,18 @@ import static org.mockito.Mockito.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.user.app.config.CredentialLookup;
+import org.user.app.dto.ListPage;
 import org.user.app.entity.Doctor;
 import org.user.app.entity.Patient;
 import org.user.app.repository.PatientRepository;
@@ -20,6 +28,7 @@ import java.util.Set;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 public class PatientServiceImplTest {
 
@@ -29,6 +38,9 @@ public class PatientServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private CredentialLookup credentialLookup;
+
     @InjectMocks
     private PatientServiceImpl patientServiceImpl;
 
@@ -80,6 +92,9 @@ public class PatientServiceImplTest {
     public void testDeletePatientSuccess() {
         // Given
         Long id = 1L;
+        Patient patient = new Patient();
+        patient.setEmail("test@example.com");
+        when(patientRepository.findById(id)).thenReturn(Optional.of(patient));
         doNothing().when(patientRepository).deleteById(id);
 
         // When
@@ -87,6 +102,7 @@ public class PatientServiceImplTest {
 
         // Then
         verify(patientRepository, times(1)).deleteById(id);
+        verify(credentialLookup).evict("test@example.com");
     }
 
     @Test
@@ -105,6 +121,78 @@ public class PatientServiceImplTest {
         verify(patientRepository, times(1)).findAll();
     }
 
+    @Test
+    @DisplayName("Retrieve the first page of patients with a cursor to the next page")
+    public void testGetPatientsFirstPage() {
+        // Given: Two patients sorted by first name, with more rows after them
+        List<Patient> patients = List.of(patient(1L, "Asha"), patient(7L, "Bela"));
+        when(patientRepository.findBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenReturn(Window.from(patients, i -> keys(patients.get(i)), true));
+
+        // When
+        ListPage<Patient> page = patientServiceImpl.getPatientsPage("firstName", "asc", 2, null, null);
+
+        // Then: The ID breaks ties in the sort and only the requested number of rows is read
+        ArgumentCaptor<ScrollPosition> position = ArgumentCaptor.forClass(ScrollPosition.class);
+        verify(patientRepository).findBy(position.capture(),
+                eq(Sort.by(Sort.Direction.ASC, "firstName").and(Sort.by(Sort.Direction.ASC, "Id"))), eq(Limit.of(2)));
+        assertTrue(position.getValue().isInitial());
+        assertEquals(patients, page.getContent());
+        assertNotNull(page.getNextCursor());
+        assertNull(page.getPreviousCursor());
+    }
+
+    @Test
+    @DisplayName("Continue after the cursor of the previous page")
+    public void testGetPatientsNextPage() {
+        // Given: The cursor handed out for the first page
+        List<Patient> first = List.of(patient(1L, "Asha"), patient(7L, "Bela"));
+        when(patientRepository.findBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenReturn(Window.from(first, i -> keys(first.get(i)), true))
+                .thenReturn(Window.from(List.of(patient(3L, "Chen")), i -> keys(patient(3L, "Chen")), false));
+        String cursor = patientServiceImpl.getPatientsPage("firstName", "asc", 2, null, null).getNextCursor();
+
+        // When
+        ListPage<Patient> page = patientServiceImpl.getPatientsPage("firstName", "asc", 2, cursor, null);
+
+        // Then: The read seeks past the last row of the first page
+        ArgumentCaptor<ScrollPosition> position = ArgumentCaptor.forClass(ScrollPosition.class);
+        verify(patientRepository, times(2)).findBy(position.capture(), any(Sort.class), any(Limit.class));
+        KeysetScrollPosition after = (KeysetScrollPosition) position.getValue();
+        assertFalse(after.scrollsBackward());
+        assertEquals(Map.of("firstName", "Bela", "Id", 7L), after.getKeys());
+        assertNull(page.getNextCursor());
+        assertNotNull(page.getPreviousCursor());
+    }
+
+    @Test
+    @DisplayName("Unknown sort fields and oversized pages fall back to safe defaults")
+    public void testGetPatientsPageDefaults() {
+        // Given
+        when(patientRepository.findBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenReturn(Window.from(List.of(), i -> ScrollPosition.keyset(), false));
+
+        // When
+        ListPage<Patient> page = patientServiceImpl.getPatientsPage("password", "sideways", 100000, "not-a-cursor", null);
+
+        // Then
+        verify(patientRepository).findBy(eq(ScrollPosition.keyset()), eq(Sort.by(Sort.Direction.ASC, "Id")), eq(Limit.of(100)));
+        assertEquals("id", page.getSort());
+        assertEquals(100, page.getSize());
+        assertNull(page.getNextCursor());
+    }
+
+    private static Patient patient(Long id, String firstName) {
+        Patient patient = new Patient();
+        patient.setId(id);
+        patient.setFirstName(firstName);
+        return patient;
+    }
+
+    private static ScrollPosition keys(Patient patient) {
+        return ScrollPosition.forward(Map.of("firstName", patient.getFirstName(), "Id", patient.getId()));
+    }
+
     @Test
     @DisplayName("Retrieve patient by email successfully")
     public void testGetPatientByEmailSuccess() {
@@ -128,9 +216,11 @@ public class PatientServiceImplTest {
         // Given
         Long id = 1L;
         Patient existingPatient = new Patient();
+        existingPatient.setEmail("old@example.com");
         existingPatient.setPassword("oldPassword");
 
         Patient updatedPatient = new Patient();
+        updatedPatient.setEmail("new@example.com");
         updatedPatient.setPassword("newPassword");
 
         when(patientRepository.findById(id)).thenReturn(Optional.of(existingPatient));
@@ -145,24 +235,23 @@ public class PatientServiceImplTest {
         assertEquals("encryptedNewPassword", result.getPassword());
         verify(patientRepository, times(1)).findById(id);
         verify(patientRepository, times(1)).save(existingPatient);
+        verify(credentialLookup).evict("old@example.com");
+        verify(credentialLookup).evict("new@example.com");
     }
 
     @Test
     @DisplayName("Add doctor to patient successfully")
     public void testAddDoctorSuccess() {
         // Given
-        Patient patient = new Patient();
-        Doctor doctor = new Doctor();
-
-        // Mocking the patient repository method
-        when(patientRepository.save(patient)).thenReturn(patient);
+        when(patientRepository.linkDoctor(1L, 2L)).thenReturn(1);
 
         // When
-        Patient result = patientServiceImpl.addDoctor(patient, doctor);
+        patientServiceImpl.addDoctor(1L, 2L);
 
-        // Then
-        assertNotNull(result);
-        verify(patientRepository, times(1)).save(patient);
+        // Then: The join row is inserted directly, without loading or saving the patient
+        verify(patientRepository, times(1)).linkDoctor(1L, 2L);
+        verify(patientRepository, never()).save(any(Patient.class));
+        verify(patientRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -173,9 +262,10 @@ public class PatientServiceImplTest {
         Set<Doctor> doctors = new HashSet<>();
         doctors.add(new Doctor());
         patient.setDoctors(doctors);
+        when(patientRepository.findWithDoctorsById(1L)).thenReturn(Optional.of(patient));
 
         // When
-        Set<Doctor> result = patientServiceImpl.viewDoctors(patient);
+        Set<Doctor> result = patientServiceImpl.viewDoctors(1L);
 
         // Then
         assertNotNull(result);
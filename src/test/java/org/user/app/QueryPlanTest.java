@@ -0,0 +1,202 @@
+package org.user.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.user.app.entity.AppointmentStatus;
+import org.user.app.repository.AdminRepository;
+import org.user.app.repository.AppointmentRepository;
+import org.user.app.repository.CredentialRepository;
+import org.user.app.repository.DoctorRepository;
+import org.user.app.repository.PatientRepository;
+
+/**
+ * Checks that the hot lookup queries are answered from an index rather than a full table scan.
+ * Each test calls a repository method, captures the SQL Hibernate generated for it and EXPLAINs
+ * that statement with the same parameters, so a changed query or a removed or renamed index makes
+ * the matching test fail. Runs against an in-memory H2 schema generated from the entity mappings;
+ * the entity index declarations must be kept in step with the Flyway scripts, which use MySQL-only online DDL.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+public class QueryPlanTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 1);
+
+    // Records every statement Hibernate prepares, in the order they are prepared
+    static class StatementRecorder implements StatementInspector {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> statements = new ArrayList<>();
+
+        @Override
+        public synchronized String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        synchronized String single() {
+            assertEquals(1, statements.size(), () -> "Expected one statement, got " + statements);
+            return statements.get(0);
+        }
+
+        synchronized void clear() {
+            statements.clear();
+        }
+    }
+
+    @TestConfiguration
+    static class Recording {
+        @Bean
+        StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementRecorderCustomizer(StatementRecorder statementRecorder) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementRecorder);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private AdminRepository adminRepository;
+
+    @Autowired
+    private CredentialRepository credentialRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @BeforeEach
+    public void setup() {
+        statementRecorder.clear();
+    }
+
+    @Test
+    @DisplayName("Patient login lookup uses the email unique index")
+    public void testPatientEmailLookup() {
+        patientRepository.findByEmail("p@example.com");
+        assertUsesIndexes(statementRecorder.single(), List.of("p@example.com"), "UK_PATIENT_EMAIL");
+    }
+
+    @Test
+    @DisplayName("Doctor login lookup uses the email unique index")
+    public void testDoctorEmailLookup() {
+        doctorRepository.findByEmail("d@example.com");
+        assertUsesIndexes(statementRecorder.single(), List.of("d@example.com"), "UK_DOCTOR_EMAIL");
+    }
+
+    @Test
+    @DisplayName("Admin login lookup uses the email unique index")
+    public void testAdminEmailLookup() {
+        adminRepository.findByEmail("a@example.com");
+        assertUsesIndexes(statementRecorder.single(), List.of("a@example.com"), "UK_ADMIN_EMAIL");
+    }
+
+    @Test
+    @DisplayName("Credential lookup across all three account tables uses each email unique index")
+    public void testCredentialLookup() {
+        credentialRepository.findByEmail("x@example.com");
+        assertUsesIndexes(statementRecorder.single(), List.of("x@example.com", "x@example.com", "x@example.com"),
+                "UK_PATIENT_EMAIL", "UK_DOCTOR_EMAIL", "UK_ADMIN_EMAIL");
+    }
+
+    @Test
+    @DisplayName("A doctor's free slots on a day use the doctor/date index")
+    public void testDoctorSlotsOnDate() {
+        appointmentRepository.findByDoctorIdAndAppointmentDateAndStatus(1L, DAY, AppointmentStatus.AVAILABLE);
+        assertUsesIndexes(statementRecorder.single(), List.of(1L, DAY, AppointmentStatus.AVAILABLE.getCode()),
+                "IDX_APPOINTMENT_DOCTOR_DATE");
+    }
+
+    @Test
+    @DisplayName("Doctors free on a day use the date index")
+    public void testAvailableDoctorsOnDate() {
+        appointmentRepository.findAvailableDoctorsOnDate(DAY);
+        assertUsesIndexes(statementRecorder.single(), List.of(DAY), "IDX_APPOINTMENT_DATE_STATUS");
+    }
+
+    @Test
+    @DisplayName("A patient's appointments by status use the patient/status index")
+    public void testPatientAppointmentsByStatus() {
+        appointmentRepository.findPatientRows(1L, AppointmentStatus.BOOKED);
+        assertUsesIndexes(statementRecorder.single(), List.of(1L, AppointmentStatus.BOOKED.getCode()),
+                "IDX_APPOINTMENT_PATIENT_STATUS");
+    }
+
+    @Test
+    @DisplayName("Expired free slot pruning uses the date index")
+    public void testExpiredAvailableIds() {
+        appointmentRepository.findExpiredAvailableIds(DAY, PageRequest.of(0, 1000));
+        assertUsesIndexes(statementRecorder.single(), List.of(DAY, 1000), "IDX_APPOINTMENT_DATE_STATUS");
+    }
+
+    @Test
+    @DisplayName("Admin doctor list sorted by first name seeks the first-name index")
+    public void testDoctorListByFirstName() {
+        doctorRepository.findBy(ScrollPosition.forward(Map.of("firstName", "John", "Id", 5L)),
+                Sort.by("firstName").and(Sort.by("Id")), Limit.of(20));
+        assertUsesIndexes(statementRecorder.single(), List.of("John", "John", 5L, 21), "IDX_DOCTOR_FIRST_NAME");
+    }
+
+    @Test
+    @DisplayName("Admin doctor list sorted by specialization seeks the specialization index")
+    public void testDoctorListBySpecialization() {
+        doctorRepository.findBy(ScrollPosition.forward(Map.of("specialization", "Cardiology", "Id", 5L)),
+                Sort.by("specialization").and(Sort.by("Id")), Limit.of(20));
+        assertUsesIndexes(statementRecorder.single(), List.of("Cardiology", "Cardiology", 5L, 21),
+                "IDX_DOCTOR_SPECIALIZATION");
+    }
+
+    @Test
+    @DisplayName("Admin patient list sorted by first name seeks the first-name index")
+    public void testPatientListByFirstName() {
+        patientRepository.findBy(ScrollPosition.forward(Map.of("firstName", "Asha", "Id", 5L)),
+                Sort.by("firstName").and(Sort.by("Id")), Limit.of(20));
+        assertUsesIndexes(statementRecorder.single(), List.of("Asha", "Asha", 5L, 21), "IDX_PATIENT_FIRST_NAME");
+    }
+
+    private void assertUsesIndexes(String sql, List<?> parameters, String... indexNames) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters.toArray());
+        assertFalse(plan.contains("tableScan"), () -> "Full table scan for: " + sql + "\n" + plan);
+        for (String indexName : indexNames) {
+            assertTrue(plan.toUpperCase().contains(indexName), () -> "Expected index " + indexName + " for: " + sql + "\n" + plan);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.user.app;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.user.app.config.ReadReplicaConfig;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadReplicaRoutingTest {
+
+    private DriverManagerDataSource primary;
+
+    private DriverManagerDataSource replica;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        // Two separate in-memory databases, each knowing its own name
+        primary = database("primary");
+        replica = database("replica");
+
+        DataSource routing = new ReadReplicaConfig().dataSource(primary, replica);
+        jdbcTemplate = new JdbcTemplate(routing);
+        transactionManager = new DataSourceTransactionManager(routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("SHUTDOWN");
+        new JdbcTemplate(replica).execute("SHUTDOWN");
+    }
+
+    private DriverManagerDataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    @Test
+    @DisplayName("Read-only transactions run on the replica")
+    public void testReadOnlyTransactionUsesReplica() {
+        // Given: A read-only transaction
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // When: Querying inside it
+        String node = readOnly.execute(status -> currentNode());
+
+        // Then: The replica answered
+        assertEquals("replica", node);
+    }
+
+    @Test
+    @DisplayName("Read-write transactions run on the primary")
+    public void testReadWriteTransactionUsesPrimary() {
+        // When: Querying inside a regular transaction
+        String node = new TransactionTemplate(transactionManager).execute(status -> currentNode());
+
+        // Then: The primary answered
+        assertEquals("primary", node);
+    }
+
+    @Test
+    @DisplayName("Statements outside a transaction run on the primary")
+    public void testNoTransactionUsesPrimary() {
+        assertEquals("primary", currentNode());
+    }
+}
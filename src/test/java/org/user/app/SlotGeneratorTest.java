@@ -0,0 +1,135 @@
+package org.user.app;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.user.app.entity.Appointment;
+import org.user.app.entity.AppointmentStatus;
+import org.user.app.dto.SlotKey;
+import org.user.app.entity.Doctor;
+import org.user.app.repository.AppointmentRepository;
+import org.user.app.service.AppointmentMetrics;
+import org.user.app.service.AvailabilityIndex;
+import org.user.app.service.SlotGenerator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class SlotGeneratorTest {
+
+    @InjectMocks
+    private SlotGenerator slotGenerator;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private AppointmentMetrics appointmentMetrics = new AppointmentMetrics(meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(slotGenerator, "batchSize", 50);
+    }
+
+    @Test
+    @DisplayName("Build one day of slots for a doctor")
+    public void testBuildDay() {
+        // Given: A doctor and a date
+        Doctor doctor = new Doctor();
+        LocalDate date = LocalDate.now();
+
+        // When: Building the day's slots
+        List<Appointment> slots = slotGenerator.buildDay(doctor, date);
+
+        // Then: Twenty half-hour available slots from 9:00 to 19:00
+        assertEquals(SlotGenerator.SLOTS_PER_DAY, slots.size());
+        assertEquals(LocalTime.of(9, 0), slots.get(0).getStartTime());
+        assertEquals(LocalTime.of(19, 0), slots.get(slots.size() - 1).getEndTime());
+        assertTrue(slots.stream().allMatch(slot -> slot.getStatus() == AppointmentStatus.AVAILABLE));
+        assertTrue(slots.stream().allMatch(slot -> slot.getDoctor() == doctor && date.equals(slot.getAppointmentDate())));
+    }
+
+    @Test
+    @DisplayName("Generate slots for several doctors in flushed batches")
+    public void testGenerateFlushesInBatches() {
+        // Given: Two doctors and a five-day range (2 * 5 * 20 = 200 slots)
+        List<Doctor> doctors = List.of(new Doctor(), new Doctor());
+        LocalDate start = LocalDate.now();
+        LocalDate end = start.plusDays(4);
+
+        // When: Generating the slots
+        List<Appointment> created = slotGenerator.generate(doctors, start, end);
+
+        // Then: Every slot is persisted, the context is flushed once per batch plus a final flush,
+        // and only the generated slots are detached
+        assertEquals(200, created.size());
+        verify(entityManager, times(200)).persist(any(Appointment.class));
+        verify(entityManager, times(5)).flush();
+        verify(entityManager, times(200)).detach(any(Appointment.class));
+        verify(entityManager, never()).clear();
+        verify(entityManager, never()).detach(doctors.get(0));
+        assertEquals(200.0, meterRegistry.get("appointments.slots.generated").counter().count());
+    }
+
+    @Test
+    @DisplayName("Generate skips slots that already exist")
+    public void testGenerateSkipsExistingSlots() {
+        // Given: A doctor who already has the 9:00 and 9:30 slots on the day
+        Doctor doctor = new Doctor();
+        doctor.setId(1L);
+        LocalDate date = LocalDate.now();
+        List<SlotKey> existing = List.of(slotKey(1L, date, LocalTime.of(9, 0)), slotKey(1L, date, LocalTime.of(9, 30)));
+        when(appointmentRepository.findSlotKeys(List.of(1L), date, date)).thenReturn(existing);
+
+        // When: Generating the day again
+        List<Appointment> created = slotGenerator.generate(List.of(doctor), date, date);
+
+        // Then: Only the missing slots are persisted, from 10:00 on
+        assertEquals(SlotGenerator.SLOTS_PER_DAY - 2, created.size());
+        assertEquals(LocalTime.of(10, 0), created.get(0).getStartTime());
+        verify(entityManager, times(SlotGenerator.SLOTS_PER_DAY - 2)).persist(any(Appointment.class));
+    }
+
+    private SlotKey slotKey(Long doctorId, LocalDate date, LocalTime startTime) {
+        SlotKey key = mock(SlotKey.class);
+        when(key.getDoctorId()).thenReturn(doctorId);
+        when(key.getAppointmentDate()).thenReturn(date);
+        when(key.getStartTime()).thenReturn(startTime);
+        return key;
+    }
+
+    @Test
+    @DisplayName("Generate nothing when the range is empty")
+    public void testGenerateEmptyRange() {
+        // Given: An end date before the start date
+        LocalDate start = LocalDate.now();
+
+        // When: Generating the slots
+        List<Appointment> created = slotGenerator.generate(List.of(new Doctor()), start, start.minusDays(1));
+
+        // Then: No slot is persisted
+        assertTrue(created.isEmpty());
+        verify(entityManager, never()).persist(any());
+    }
+}
@@ -0,0 +1,184 @@
+package org.user.app;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.user.app.dto.SlotHorizon;
+import org.user.app.entity.Appointment;
+import org.user.app.entity.Doctor;
+import org.user.app.repository.AppointmentRepository;
+import org.user.app.repository.DoctorRepository;
+import org.user.app.scheduler.SlotHorizonScheduler;
+import org.user.app.service.AppointmentMetrics;
+import org.user.app.service.AvailabilityIndex;
+import org.user.app.service.SlotGenerator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class SlotHorizonSchedulerTest {
+
+    @InjectMocks
+    private SlotHorizonScheduler slotHorizonScheduler;
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private SlotGenerator slotGenerator;
+
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private AppointmentMetrics appointmentMetrics = new AppointmentMetrics(meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(slotHorizonScheduler, "horizonDays", 60);
+        ReflectionTestUtils.setField(slotHorizonScheduler, "doctorBatchSize", 50);
+        ReflectionTestUtils.setField(slotHorizonScheduler, "pruneBatchSize", 2);
+    }
+
+    private Doctor doctor(Long id) {
+        Doctor doctor = new Doctor();
+        doctor.setId(id);
+        return doctor;
+    }
+
+    private SlotHorizon horizon(Long doctorId, LocalDate lastDate) {
+        SlotHorizon horizon = mock(SlotHorizon.class);
+        when(horizon.getDoctorId()).thenReturn(doctorId);
+        when(horizon.getLastDate()).thenReturn(lastDate);
+        return horizon;
+    }
+
+    @Test
+    @DisplayName("Extend horizon - Generates only the missing days per doctor")
+    public void testExtendHorizon() {
+        // Given: One doctor generated up to next week, one with only past slots, one fully generated
+        LocalDate today = LocalDate.now();
+        LocalDate horizonEnd = today.plusDays(60);
+        Doctor partial = doctor(1L);
+        Doctor expired = doctor(2L);
+        Doctor complete = doctor(3L);
+        when(doctorRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(partial, expired, complete)));
+        List<SlotHorizon> lastDates = List.of(
+                horizon(1L, today.plusDays(7)),
+                horizon(2L, today.minusDays(3)),
+                horizon(3L, horizonEnd));
+        when(appointmentRepository.findLastSlotDates(List.of(1L, 2L, 3L))).thenReturn(lastDates);
+        when(slotGenerator.generate(anyList(), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(List.of(new Appointment()));
+
+        // When: Extending the horizon
+        int created = slotHorizonScheduler.extendHorizon(today);
+
+        // Then: Each incomplete doctor is generated from its first missing day up to the horizon
+        assertEquals(2, created);
+        verify(slotGenerator).generate(List.of(partial), today.plusDays(8), horizonEnd);
+        verify(slotGenerator).generate(List.of(expired), today, horizonEnd);
+        verify(slotGenerator, times(2)).generate(anyList(), any(LocalDate.class), any(LocalDate.class));
+
+        // Then: Each generation run is timed as a slot-generation operation
+        assertEquals(2, meterRegistry.get("appointments.operation")
+                .tags("operation", AppointmentMetrics.GENERATE_SLOTS, "outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("Extend horizon - Slots generated concurrently elsewhere are skipped")
+    public void testExtendHorizon_GeneratedConcurrently() {
+        // Given: Two doctors starting on different days; the first one's slots are inserted by another run meanwhile
+        LocalDate today = LocalDate.now();
+        LocalDate horizonEnd = today.plusDays(60);
+        Doctor first = doctor(1L);
+        Doctor second = doctor(2L);
+        when(doctorRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(first, second)));
+        List<SlotHorizon> lastDates = List.of(horizon(2L, today.plusDays(7)));
+        when(appointmentRepository.findLastSlotDates(List.of(1L, 2L))).thenReturn(lastDates);
+        when(slotGenerator.generate(List.of(first), today, horizonEnd))
+                .thenThrow(new ConstraintViolationException("Duplicate entry", null, "uk_appointment_doctor_slot"));
+        when(slotGenerator.generate(List.of(second), today.plusDays(8), horizonEnd))
+                .thenReturn(List.of(new Appointment()));
+
+        // When: Extending the horizon
+        int created = slotHorizonScheduler.extendHorizon(today);
+
+        // Then: The conflicting group is skipped and the next one is still generated
+        assertEquals(1, created);
+        verify(slotGenerator).generate(List.of(second), today.plusDays(8), horizonEnd);
+    }
+
+    @Test
+    @DisplayName("Extend horizon - No doctors")
+    public void testExtendHorizon_NoDoctors() {
+        // Given: No registered doctors
+        when(doctorRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(new ArrayList<>()));
+
+        // When: Extending the horizon
+        int created = slotHorizonScheduler.extendHorizon(LocalDate.now());
+
+        // Then: Nothing is queried or generated
+        assertEquals(0, created);
+        verifyNoInteractions(appointmentRepository, slotGenerator);
+    }
+
+    @Test
+    @DisplayName("Prune expired slots in bounded batches")
+    public void testPruneExpiredSlots() {
+        // Given: Three expired free slots removed two at a time
+        LocalDate today = LocalDate.now();
+        when(appointmentRepository.findExpiredAvailableIds(eq(today), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L))
+                .thenReturn(List.of());
+        when(appointmentRepository.deleteExpiredAvailable(List.of(1L, 2L), today)).thenReturn(2);
+        when(appointmentRepository.deleteExpiredAvailable(List.of(3L), today)).thenReturn(1);
+
+        // When: Pruning
+        int pruned = slotHorizonScheduler.pruneExpiredSlots(today);
+
+        // Then: Every batch is deleted with one conditional statement
+        assertEquals(3, pruned);
+        verify(appointmentRepository).deleteExpiredAvailable(List.of(1L, 2L), today);
+        verify(appointmentRepository).deleteExpiredAvailable(List.of(3L), today);
+        verify(appointmentRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("Prune expired slots - Slot booked after its ID was read is kept")
+    public void testPruneExpiredSlots_BookedMeanwhile() {
+        // Given: Two expired free slots, one of which is booked before the delete runs
+        LocalDate today = LocalDate.now();
+        when(appointmentRepository.findExpiredAvailableIds(eq(today), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of());
+        when(appointmentRepository.deleteExpiredAvailable(List.of(1L, 2L), today)).thenReturn(1);
+
+        // When: Pruning
+        int pruned = slotHorizonScheduler.pruneExpiredSlots(today);
+
+        // Then: Only the rows actually deleted are counted
+        assertEquals(1, pruned);
+    }
+}
@@ -0,0 +1,83 @@
+package org.user.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.user.app.config.SqlSampler;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+public class SqlSamplerTest {
+
+    private static final String SQL = "select * from patient where email=?";
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger("org.user.app.SQL_SAMPLE");
+
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    public void setup() {
+        appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    @DisplayName("Nothing is logged when sampling is off and the statement is passed through unchanged")
+    public void testSamplingOff() {
+        // Given
+        SqlSampler sampler = new SqlSampler(0.0);
+
+        // When
+        String result = sampler.inspect(SQL);
+
+        // Then
+        assertEquals(SQL, result);
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Every statement is logged at a rate of 1")
+    public void testSampleEverything() {
+        // Given
+        SqlSampler sampler = new SqlSampler(1.0);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            sampler.inspect(SQL);
+        }
+
+        // Then
+        assertEquals(5, appender.list.size());
+        assertEquals(SQL, appender.list.get(0).getFormattedMessage());
+    }
+
+    @Test
+    @DisplayName("The rate can be changed at runtime and is clamped to 0..1")
+    public void testChangeRateAtRuntime() {
+        // Given
+        SqlSampler sampler = new SqlSampler(0.0);
+
+        // When
+        sampler.setSampleRate(7);
+        sampler.inspect(SQL);
+
+        // Then
+        assertEquals(1.0, sampler.getSampleRate());
+        assertEquals(1, appender.list.size());
+
+        sampler.setSampleRate(-1);
+        assertEquals(0.0, sampler.getSampleRate());
+    }
+}